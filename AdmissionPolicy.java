@@ -0,0 +1,142 @@
+import java.util.ArrayDeque;
+
+// Decides what an arriving car does when the waiting area is full.
+//   BLOCK    - wait for a spot as long as it takes (the original behaviour)
+//   BALK     - leave immediately
+//   RENEGE   - wait up to timeoutMillis, then leave
+//   OVERFLOW - wait in a bounded overflow lane of overflowSize cars; leave if that is full too.
+//              The lane is first come, first served: freed spots go to lane cars before new arrivals.
+// Only BLOCK lets the number of waiting car threads grow without limit under overload.
+public class AdmissionPolicy {
+
+    public enum Kind {
+        BLOCK,
+        BALK,
+        RENEGE,
+        OVERFLOW
+    }
+
+    private final Kind kind;
+    private final long timeoutMillis;
+    private final int overflowSize;
+    private final ArrayDeque<Object> lane; // overflow lane, head first; guarded by itself, only for OVERFLOW
+
+    private AdmissionPolicy(Kind kind, long timeoutMillis, int overflowSize) {
+        this.kind = kind;
+        this.timeoutMillis = timeoutMillis;
+        this.overflowSize = overflowSize;
+        this.lane = kind == Kind.OVERFLOW ? new ArrayDeque<>() : null;
+    }
+
+    public static AdmissionPolicy block() {
+        return new AdmissionPolicy(Kind.BLOCK, 0, 0);
+    }
+
+    public static AdmissionPolicy balk() {
+        return new AdmissionPolicy(Kind.BALK, 0, 0);
+    }
+
+    public static AdmissionPolicy renege(long timeoutMillis) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException("Renege timeout cannot be negative");
+        }
+        return new AdmissionPolicy(Kind.RENEGE, timeoutMillis, 0);
+    }
+
+    public static AdmissionPolicy overflow(int overflowSize) {
+        if (overflowSize < 0) {
+            throw new IllegalArgumentException("Overflow size cannot be negative");
+        }
+        return new AdmissionPolicy(Kind.OVERFLOW, 0, overflowSize);
+    }
+
+    // Accepts block, balk, renege:MS or overflow:SIZE. Each call returns a new policy with its
+    // own overflow lane, so every waiting area should parse its own.
+    public static AdmissionPolicy parse(String spec) {
+        String[] parts = spec.split(":");
+        switch (parts[0].toLowerCase()) {
+            case "block":
+                return block();
+            case "balk":
+                return balk();
+            case "renege":
+                return renege(parts.length > 1 ? Long.parseLong(parts[1]) : 1000);
+            case "overflow":
+                return overflow(parts.length > 1 ? Integer.parseInt(parts[1]) : 10);
+            default:
+                throw new IllegalArgumentException("Unknown admission policy: " + spec);
+        }
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // Tries to take a spot in the waiting area (a permit of empty). Returns true if the car got
+    // one; otherwise the car has been counted as rejected or abandoned and must go away.
+    public boolean admit(Semaphore empty, StationMetrics metrics) throws InterruptedException {
+        switch (kind) {
+            case BALK:
+                if (empty.tryAcquire()) {
+                    return true;
+                }
+                metrics.recordRejected();
+                return false;
+            case RENEGE:
+                if (empty.tryAcquire(timeoutMillis)) {
+                    return true;
+                }
+                metrics.recordAbandoned();
+                return false;
+            case OVERFLOW:
+                return admitThroughLane(empty, metrics);
+            case BLOCK:
+            default:
+                empty.acquire();
+                return true;
+        }
+    }
+
+    // A new car takes a free spot directly only while the lane is empty; otherwise it joins the
+    // back of the lane. Only the car at the head of the lane waits on empty, so lane cars get
+    // freed spots in arrival order and newer cars can never overtake them.
+    private boolean admitThroughLane(Semaphore empty, StationMetrics metrics) throws InterruptedException {
+        Object self = new Object();
+        synchronized (lane) {
+            if (lane.isEmpty() && empty.tryAcquire()) {
+                return true;
+            }
+            if (lane.size() >= overflowSize) {
+                metrics.recordRejected();
+                return false;
+            }
+            lane.addLast(self);
+        }
+        try {
+            synchronized (lane) {
+                while (lane.peekFirst() != self) {
+                    lane.wait();
+                }
+            }
+            empty.acquire();
+            return true;
+        } finally {
+            synchronized (lane) {
+                lane.remove(self); // the head after a spot, or anywhere in the lane if interrupted
+                lane.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case RENEGE:
+                return "renege:" + timeoutMillis;
+            case OVERFLOW:
+                return "overflow:" + overflowSize;
+            default:
+                return kind.name().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Chooses which waiting area an arriving car joins in a sharded station
+public class ArrivalRouter {
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        SHORTEST_QUEUE,
+        POWER_OF_TWO
+    }
+
+    private final Strategy strategy;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ArrivalRouter(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public WaitingArea choose(WaitingArea[] areas) {
+        if (areas.length == 1) {
+            return areas[0];
+        }
+        switch (strategy) {
+            case SHORTEST_QUEUE: {
+                // Scan from a rotating start so ties (usually all depths 0) spread round-robin
+                // instead of always going to area 0
+                int start = Math.floorMod(next.getAndIncrement(), areas.length);
+                WaitingArea best = areas[start];
+                int bestDepth = best.depth();
+                for (int k = 1; k < areas.length; k++) {
+                    WaitingArea area = areas[(start + k) % areas.length];
+                    int depth = area.depth();
+                    if (depth < bestDepth) {
+                        best = area;
+                        bestDepth = depth;
+                    }
+                }
+                return best;
+            }
+            case POWER_OF_TWO: {
+                // Sample two distinct areas and join the shorter one
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int a = random.nextInt(areas.length);
+                int b = random.nextInt(areas.length - 1);
+                if (b >= a) {
+                    b++;
+                }
+                return areas[a].depth() <= areas[b].depth() ? areas[a] : areas[b];
+            }
+            case ROUND_ROBIN:
+            default:
+                return areas[Math.floorMod(next.getAndIncrement(), areas.length)];
+        }
+    }
+
+    // Accepts the names used on the command line: rr, shortest, p2c (or the enum names)
+    public static ArrivalRouter parse(String name) {
+        switch (name.toLowerCase()) {
+            case "rr":
+            case "round_robin":
+                return new ArrivalRouter(Strategy.ROUND_ROBIN);
+            case "shortest":
+            case "shortest_queue":
+                return new ArrivalRouter(Strategy.SHORTEST_QUEUE);
+            case "p2c":
+            case "power_of_two":
+                return new ArrivalRouter(Strategy.POWER_OF_TWO);
+            default:
+                throw new IllegalArgumentException("Unknown router: " + name);
+        }
+    }
+}
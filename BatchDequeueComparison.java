@@ -0,0 +1,75 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+// Compares pump throughput with single dequeue (batch size 1) against batch dequeue.
+// Service time is zero, and a fixed set of producer threads (one per pump) admits and enqueues
+// the cars instead of starting a thread per car, so the measured time is dominated by queue
+// synchronization rather than thread creation.
+// When an event log file is given, single dequeue is run once more with the binary event log
+// on, to check that logging keeps the hot path close to its unlogged throughput.
+// Usage: java BatchDequeueComparison [cars] [pumps] [capacity] [batchSize] [eventLogFile]
+public class BatchDequeueComparison {
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int numberOfCars = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int numberOfPumps = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int waitingAreaCapacity = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int batchSize = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+
+        // Each Station is reused for its warm-up and its measured run, back to back in this JVM.
+        // Warm up both paths once so the JIT does not favour whichever runs second.
+        Station single = new Station(numberOfPumps, waitingAreaCapacity, 1, QueueDiscipline.FIFO, 0, "block");
+        Station batched = new Station(numberOfPumps, waitingAreaCapacity, batchSize, QueueDiscipline.FIFO, 0, "block");
+        int producers = numberOfPumps;
+        run(single, numberOfCars / 10, producers);
+        run(batched, numberOfCars / 10, producers);
+
+        long singleNanos = run(single, numberOfCars, producers);
+        long batchNanos = run(batched, numberOfCars, producers);
+
+        System.out.printf("cars=%d pumps=%d producers=%d capacity=%d%n", numberOfCars, numberOfPumps, producers,
+                waitingAreaCapacity);
+        System.out.printf("single dequeue     : %10.0f cars/s%n", numberOfCars / (singleNanos / 1e9));
+        System.out.printf("batch dequeue (%3d): %10.0f cars/s%n", batchSize, numberOfCars / (batchNanos / 1e9));
+
+        if (args.length > 4) {
+            EventLog.open(args[4]);
+            long loggedNanos = run(single, numberOfCars, producers);
+            long dropped = EventLog.close();
+            // A run that dropped events did less work, so its throughput is only comparable when this is 0
+            System.out.printf("single + event log : %10.0f cars/s (%d events dropped)%n",
+                    numberOfCars / (loggedNanos / 1e9), dropped);
+        }
+    }
+
+    // Runs one full start/arrive/drain cycle and returns the time until the last pump stopped.
+    // Producer p enqueues cars p, p + producers, p + 2 * producers, ...
+    private static long run(Station station, int numberOfCars, int producers) throws InterruptedException {
+        // Console output would dominate the measurement, so discard it while the station runs
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            station.start();
+            Thread[] threads = new Thread[producers];
+            for (int p = 0; p < producers; p++) {
+                int first = p;
+                threads[p] = new Thread(() -> {
+                    for (int i = first; i < numberOfCars; i += producers) {
+                        station.arriveOnCallerThread("C" + (i + 1), 0, 0);
+                    }
+                }, "Producer-" + (p + 1));
+                threads[p].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            station.shutdown();
+            station.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            return station.getElapsedNanos();
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+}
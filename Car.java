@@ -1,18 +1,34 @@
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Car extends Thread {
     private final String carName;
-    private final Queue<Car> waitingQueue;
-    private final Semaphore mutex;
-    private final Semaphore empty;
-    private final Semaphore full;
+    private final WaitingArea[] waitingAreas;
+    private final ArrivalRouter router;
+    private final int serviceClass;
+    private final long serviceDemandMillis;
+    private final long sequence;        // creation order, breaks ties between equally ranked cars
+    private static final AtomicLong nextSequence = new AtomicLong();
+    private volatile long arrivalNanos; // when the car joined its queue, used for wait-time metrics
 
     public Car(String carName, Queue<Car> waitingQueue, Semaphore mutex, Semaphore empty, Semaphore full) {
+        this(carName, new WaitingArea[]{new WaitingArea(0, waitingQueue, mutex, empty, full)},
+                new ArrivalRouter(ArrivalRouter.Strategy.ROUND_ROBIN));
+    }
+
+    // Sharded station: the router picks one of the waiting areas when the car arrives
+    public Car(String carName, WaitingArea[] waitingAreas, ArrivalRouter router) {
+        this(carName, waitingAreas, router, 0, 1000);
+    }
+
+    // serviceDemandMillis is how long a pump will take to wash this car
+    public Car(String carName, WaitingArea[] waitingAreas, ArrivalRouter router, int serviceClass, long serviceDemandMillis) {
         this.carName = carName;
-        this.waitingQueue = waitingQueue;
-        this.mutex = mutex;
-        this.empty = empty;
-        this.full = full;
+        this.waitingAreas = waitingAreas;
+        this.router = router;
+        this.serviceClass = serviceClass;
+        this.serviceDemandMillis = serviceDemandMillis;
+        this.sequence = nextSequence.getAndIncrement();
         setName("Car-" + carName);
     }
 
@@ -20,28 +36,68 @@ public class Car extends Thread {
         return carName;
     }
 
+    public int getServiceClass() {
+        return serviceClass;
+    }
+
+    public long getServiceDemandMillis() {
+        return serviceDemandMillis;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getArrivalNanos() {
+        return arrivalNanos;
+    }
+
     @Override
     public void run() {
+        joinQueue();
+    }
+
+    // Admission and enqueue. Runs on the car's own thread, or directly on the caller's thread when
+    // a load generator reuses a fixed set of producer threads (see Station.arriveOnCallerThread).
+    public void joinQueue() {
+        WaitingArea area = router.choose(waitingAreas);
+        Semaphore mutex = area.getMutex();
         try {
-            // Wait for a free spot in the waiting area
-            empty.acquire();
+            // Get a free spot in the waiting area, or leave if the admission policy says so
+            if (!area.getAdmission().admit(area.getEmpty(), area.getMetrics())) {
+                if (EventLog.isEnabled()) {
+                    EventLog.record(EventLog.LEAVE, sequence, 0);
+                } else {
+                    System.out.println("[LEAVE] " + carName + " left without joining the queue");
+                }
+                return;
+            }
 
-            // Enter critical section to enqueue
+            // Enter critical section to enqueue; nothing slow (like console output) happens inside
+            int waiting;
             mutex.acquire();
             try {
-                waitingQueue.add(this);
-                System.out.println("[ARRIVE] " + carName + " joined the queue. Waiting: " + waitingQueue.size());
+                arrivalNanos = System.nanoTime();
+                area.getWaitingQueue().add(this);
+                waiting = area.getWaitingQueue().size();
             } finally {
                 mutex.release();
             }
+            area.getMetrics().recordAccepted();
+
+            if (EventLog.isEnabled()) {
+                EventLog.record(EventLog.ARRIVE, sequence, 0);
+            } else if (waitingAreas.length > 1) {
+                System.out.println("[ARRIVE] " + carName + " joined queue " + area.getAreaId() + ". Waiting: " + waiting);
+            } else {
+                System.out.println("[ARRIVE] " + carName + " joined the queue. Waiting: " + waiting);
+            }
 
             // Signal that a car is available
-            full.release();
+            area.getFull().release();
         } catch (InterruptedException e) {
             // Restore interrupt status and exit
             Thread.currentThread().interrupt();
         }
     }
 }
-
-
@@ -0,0 +1,130 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Car wash whose pumps are opened and closed by a PumpController as load changes. Arrivals come
+// in phases of different speed so the pool can be watched growing and shrinking; the pump
+// count, queue depth, recent wait and utilization over time are printed at the end.
+//
+// Usage: java ServiceStation --elastic [min=1] [max=8] [bays=max] [capacity=10] [depth=2] [wait=500] [idle=1000]
+//                                      [sample=250] [service=exp:300] [phases=40:400,200:40,40:400]
+//                                      [admission=block] [quiet=false]
+// Each phase is cars:gapMillis; wait, idle and sample are in milliseconds. bays caps how many
+// pumps can wash at once and may be lower than max.
+public class ElasticStation {
+
+    public static void main(String[] args) throws InterruptedException {
+        int minPumps = 1;
+        int maxPumps = 8;
+        int bays = 0; // 0 means as many as maxPumps
+        int capacity = 10;
+        int scaleUpDepth = 2;
+        long scaleUpWaitMillis = 500;
+        long idleMillis = 1000;
+        long sampleMillis = 250;
+        Workload workload = Workload.parse("exp:300");
+        String phases = "40:400,200:40,40:400";
+        String admission = "block";
+        boolean quiet = false;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                System.out.println("elastic: expected key=value but got '" + arg + "'");
+                return;
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "min":
+                    minPumps = Integer.parseInt(value);
+                    break;
+                case "max":
+                    maxPumps = Integer.parseInt(value);
+                    break;
+                case "bays":
+                    bays = Integer.parseInt(value);
+                    break;
+                case "capacity":
+                    capacity = Integer.parseInt(value);
+                    break;
+                case "depth":
+                    scaleUpDepth = Integer.parseInt(value);
+                    break;
+                case "wait":
+                    scaleUpWaitMillis = Long.parseLong(value);
+                    break;
+                case "idle":
+                    idleMillis = Long.parseLong(value);
+                    break;
+                case "sample":
+                    sampleMillis = Long.parseLong(value);
+                    break;
+                case "service":
+                    workload = Workload.parse(value);
+                    break;
+                case "phases":
+                    phases = value;
+                    break;
+                case "admission":
+                    admission = value;
+                    break;
+                case "quiet":
+                    quiet = Boolean.parseBoolean(value);
+                    break;
+                default:
+                    System.out.println("elastic: unknown parameter '" + key + "'");
+                    return;
+            }
+        }
+
+        WaitingArea[] waitingArea = {new WaitingArea(0, QueueDiscipline.FIFO.newQueue(0), new Semaphore(1),
+                new Semaphore(capacity), new Semaphore(0), AdmissionPolicy.parse(admission))};
+        ArrivalRouter router = new ArrivalRouter(ArrivalRouter.Strategy.ROUND_ROBIN);
+        if (bays == 0) {
+            bays = maxPumps;
+        }
+        PumpController controller = new PumpController(waitingArea[0], minPumps, maxPumps, bays, scaleUpDepth,
+                scaleUpWaitMillis, idleMillis, sampleMillis, 1);
+
+        PrintStream originalOut = System.out;
+        if (quiet) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        controller.start();
+
+        // ----------- Arrivals, phase by phase -----------
+        SplittableRandom random = new SplittableRandom();
+        List<Car> cars = new ArrayList<>();
+        int carNumber = 0;
+        for (String phase : phases.split(",")) {
+            String[] parts = phase.split(":");
+            int phaseCars = Integer.parseInt(parts[0]);
+            long gapMillis = Long.parseLong(parts[1]);
+            for (int i = 0; i < phaseCars; i++) {
+                int serviceClass = workload.sampleClass(random);
+                Car car = new Car("C" + (++carNumber), waitingArea, router, serviceClass,
+                        workload.sampleDemandMillis(serviceClass, random));
+                car.start();
+                cars.add(car);
+                Thread.sleep(gapMillis);
+            }
+        }
+
+        // Every car ends once it has joined the queue or left; then close the area and let the
+        // pumps drain it
+        for (Car car : cars) {
+            car.join();
+        }
+        controller.shutdown();
+        System.setOut(originalOut);
+        StationMetrics metrics = waitingArea[0].getMetrics();
+
+        System.out.printf("%nElastic pool min=%d max=%d bays=%d, %d cars serviced, mean wait %.1f ms, p99 wait %.1f ms,"
+                + " %d scale-ups blocked by bays%n", minPumps, maxPumps, bays, metrics.getServiced(),
+                metrics.meanWaitMillis(), metrics.percentileWaitMillis(99), controller.getBlockedScaleUps());
+        controller.printTimeline();
+    }
+}
@@ -0,0 +1,230 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Binary event log for the station. Cars and pumps call record(), which only writes a 16-byte
+// record into a ring buffer owned by the calling thread: no lock, no I/O, no string building.
+// A background writer drains every ring into a memory-mapped file. A ring that reaches half
+// full wakes the writer early instead of waiting for its idle park to end. If a ring is full
+// anyway the record is dropped and counted rather than making the car or pump wait.
+//
+// File layout (little endian):
+//   header: int MAGIC, int VERSION, long start time (epoch millis)
+//   record: long nanos since start, int car sequence, short pump id (0 = none), short event type
+// Records of one thread appear in order; records of different threads may interleave in any
+// order. EventLogDecoder turns the file back into text. A record() that races with close() is
+// either written by the writer's last pass or counted as dropped, never lost silently.
+public class EventLog {
+    public static final int MAGIC = 0x4357454C; // "CWEL"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 16;
+
+    public static final short ARRIVE = 1;
+    public static final short SERVICE = 2;
+    public static final short DONE = 3;
+    public static final short LEAVE = 4;
+
+    private static final int RING_SIZE = 4096;                // records per thread, a power of two
+    private static final long REGION_BYTES = 8L << 20;        // file is mapped 8 MB at a time
+    private static final long IDLE_PARK_NANOS = 1_000_000L;   // writer sleep when all rings are empty
+    private static final long SEALED = -1;                    // Ring.tail after the writer's last pass
+
+    private static volatile EventLog current;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final long startNanos = System.nanoTime();
+    private final Queue<Ring> rings = new ConcurrentLinkedQueue<>(); // lock-free, every car thread adds a ring
+    private final ThreadLocal<Ring> ownRing = ThreadLocal.withInitial(this::newRing);
+    private final Thread writer;
+    private volatile boolean closing;
+    private volatile boolean sealed; // set by the writer before its last pass
+    private final AtomicLong lateDropped = new AtomicLong();
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long dropped;
+
+    private EventLog(String fileName) throws IOException {
+        file = new RandomAccessFile(fileName, "rw");
+        file.setLength(0);
+        channel = file.getChannel();
+        mapRegion(0);
+        region.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis());
+        writer = new Thread(this::drainLoop, "EventLog-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Starts logging to fileName. The log is closed and flushed when close() is called or the JVM exits.
+    public static synchronized void open(String fileName) throws IOException {
+        if (current != null) {
+            throw new IllegalStateException("Event log is already open");
+        }
+        current = new EventLog(fileName);
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::close, "EventLog-shutdown"));
+    }
+
+    public static boolean isEnabled() {
+        return current != null;
+    }
+
+    public static void record(short type, long carSequence, int pumpId) {
+        EventLog log = current;
+        if (log != null) {
+            Ring ring = log.ownRing.get();
+            if (!ring.offer(System.nanoTime() - log.startNanos, (int) carSequence, (short) pumpId, type)) {
+                log.lateDropped.incrementAndGet(); // sealed by close(); rare, so a shared counter is fine
+            }
+        }
+    }
+
+    // Stops the writer after it has drained every ring, and trims the file to what was written.
+    // Returns the number of events that were dropped, so callers can qualify their results.
+    public static synchronized long close() {
+        EventLog log = current;
+        if (log == null) {
+            return 0;
+        }
+        current = null;
+        log.closing = true;
+        LockSupport.unpark(log.writer);
+        try {
+            log.writer.join();
+            log.region.force();
+            log.file.setLength(log.regionStart + log.region.position());
+            log.file.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("eventlog: " + e.getMessage());
+        }
+        if (log.dropped > 0) {
+            System.err.println("eventlog: " + log.dropped + " events dropped because a thread's buffer was full");
+        }
+        if (log.lateDropped.get() > 0) {
+            System.err.println("eventlog: " + log.lateDropped.get()
+                    + " events dropped because they were recorded during close");
+        }
+        return log.dropped + log.lateDropped.get();
+    }
+
+    private Ring newRing() {
+        Ring ring = new Ring(Thread.currentThread(), writer);
+        rings.add(ring);
+        // Added after the writer's last pass started: nothing will drain it, so refuse records
+        if (sealed) {
+            ring.tail.set(SEALED);
+        }
+        return ring;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            // On the last pass every ring is sealed as it is drained. A thread that still holds this
+            // log then fails to publish and counts the record as dropped instead of losing it.
+            boolean last = closing;
+            if (last) {
+                sealed = true;
+            }
+            boolean wroteAny = false;
+            for (Iterator<Ring> it = rings.iterator(); it.hasNext(); ) {
+                Ring ring = it.next();
+                // A dead thread cannot add more records, so its ring can go once it is drained
+                boolean ownerDead = !ring.owner.isAlive();
+                wroteAny |= drain(ring, last);
+                if (ownerDead) {
+                    it.remove();
+                }
+            }
+            if (last) {
+                return;
+            }
+            if (!wroteAny) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private boolean drain(Ring ring, boolean seal) {
+        long head = ring.head.get();
+        long tail = seal ? ring.tail.getAndSet(SEALED) : ring.tail.get();
+        if (tail == SEALED) {
+            return false;
+        }
+        for (long i = head; i < tail; i++) {
+            int slot = (int) (i & (RING_SIZE - 1));
+            if (region.remaining() < RECORD_BYTES) {
+                try {
+                    mapRegion(regionStart + region.position());
+                } catch (IOException e) {
+                    System.err.println("eventlog: " + e.getMessage());
+                    closing = true;
+                    return false;
+                }
+            }
+            region.putLong(ring.nanos[slot]).putInt(ring.cars[slot]).putShort(ring.pumps[slot]).putShort(ring.types[slot]);
+        }
+        ring.head.lazySet(tail);
+        dropped += ring.dropped.getAndSet(0);
+        return tail > head;
+    }
+
+    private void mapRegion(long position) throws IOException {
+        if (region != null) {
+            region.force();
+        }
+        regionStart = position;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, REGION_BYTES);
+        region.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Single-producer single-consumer ring: only the owner thread offers, only the writer drains.
+    // The writer's only write to tail is the final SEALED, so the owner's publish is an uncontended CAS.
+    private static class Ring {
+        final Thread owner;
+        final Thread writer;
+        final long[] nanos = new long[RING_SIZE];
+        final int[] cars = new int[RING_SIZE];
+        final short[] pumps = new short[RING_SIZE];
+        final short[] types = new short[RING_SIZE];
+        final AtomicLong head = new AtomicLong();
+        final AtomicLong tail = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+
+        Ring(Thread owner, Thread writer) {
+            this.owner = owner;
+            this.writer = writer;
+        }
+
+        // Returns false if the ring has been sealed and the record could not be kept
+        boolean offer(long time, int car, short pump, short type) {
+            long t = tail.get();
+            if (t == SEALED) {
+                return false;
+            }
+            long used = t - head.get();
+            if (used == RING_SIZE) {
+                dropped.incrementAndGet();
+                LockSupport.unpark(writer);
+                return true;
+            }
+            if (used == RING_SIZE / 2) {
+                LockSupport.unpark(writer); // once per fill, not on every record
+            }
+            int slot = (int) (t & (RING_SIZE - 1));
+            nanos[slot] = time;
+            cars[slot] = car;
+            pumps[slot] = pump;
+            types[slot] = type;
+            return tail.compareAndSet(t, t + 1); // publishes the slot to the writer, fails only once sealed
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+// Turns a binary EventLog file into readable text, one line per record. The file is read as a
+// stream, so logs larger than memory are fine.
+// Usage: java EventLogDecoder events.bin
+public class EventLogDecoder {
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("Usage: java EventLogDecoder <event log file>");
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(args[0]), 1 << 16))) {
+            byte[] raw = new byte[Math.max(EventLog.HEADER_BYTES, EventLog.RECORD_BYTES)];
+            ByteBuffer buffer = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+
+            in.readFully(raw, 0, EventLog.HEADER_BYTES);
+            buffer.clear();
+            if (buffer.getInt() != EventLog.MAGIC) {
+                System.out.println("eventlog: " + args[0] + " is not an event log");
+                return;
+            }
+            int version = buffer.getInt();
+            if (version != EventLog.VERSION) {
+                System.out.println("eventlog: unsupported version " + version);
+                return;
+            }
+            long startMillis = buffer.getLong();
+            System.out.println("# event log started " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date(startMillis)));
+
+            long count = 0;
+            while (true) {
+                try {
+                    in.readFully(raw, 0, EventLog.RECORD_BYTES);
+                } catch (EOFException e) {
+                    break;
+                }
+                buffer.clear();
+                long nanos = buffer.getLong();
+                int car = buffer.getInt();
+                short pump = buffer.getShort();
+                short type = buffer.getShort();
+                if (type == 0) {
+                    break; // unwritten space at the end of a log that was not closed cleanly
+                }
+                System.out.printf("%12.3f ms %-8s car#%d%s%n", nanos / 1e6, typeName(type), car,
+                        pump == 0 ? "" : " pump " + pump);
+                count++;
+            }
+            System.out.println("# " + count + " events");
+        } catch (EOFException e) {
+            System.out.println("eventlog: " + args[0] + " is truncated");
+        } catch (IOException e) {
+            System.out.println("eventlog: " + e.getMessage());
+        }
+    }
+
+    private static String typeName(short type) {
+        switch (type) {
+            case EventLog.ARRIVE:
+                return "ARRIVE";
+            case EventLog.SERVICE:
+                return "SERVICE";
+            case EventLog.DONE:
+                return "DONE";
+            case EventLog.LEAVE:
+                return "LEAVE";
+            default:
+                return "TYPE" + type;
+        }
+    }
+}
@@ -43,10 +43,129 @@ class Parser {
     }
 }
 
+class ZipCommands {
+    private final LinuxTerminal terminal;
+
+    ZipCommands(LinuxTerminal terminal) {
+        this.terminal = terminal;
+    }
+
+    public void zip(String[] args) {
+        if (args.length < 2) {
+            System.out.println("zip: missing arguments");
+            return;
+        }
+
+        String zipFileName = args[0];
+        boolean recursive = false;
+        List<String> filesToZip = new ArrayList<>();
+
+        int startIndex = 1;
+        if ("-r".equals(args[1])) {
+            recursive = true;
+            startIndex = 2;
+            if (args.length < 3) {
+                System.out.println("zip: missing arguments");
+                return;
+            }
+        }
+
+        for (int i = startIndex; i < args.length; i++) {
+            filesToZip.add(args[i]);
+        }
+
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(terminal.resolvePath(zipFileName).toFile()))) {
+            for (String fileToZip : filesToZip) {
+                Path path = terminal.resolvePath(fileToZip);
+                if (Files.isDirectory(path) && recursive) {
+                    zipDirectory(path, path.getFileName().toString(), zos);
+                } else if (Files.isRegularFile(path)) {
+                    zipFile(path, path.getFileName().toString(), zos);
+                } else {
+                    System.out.println("zip: " + fileToZip + ": No such file or directory");
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("zip: " + e.getMessage());
+        }
+    }
+
+    private void zipFile(Path file, String fileName, ZipOutputStream zos) throws IOException {
+        ZipEntry zipEntry = new ZipEntry(fileName);
+        zos.putNextEntry(zipEntry);
+        Files.copy(file, zos);
+        zos.closeEntry();
+    }
+
+    private void zipDirectory(Path folder, String parentFolder, ZipOutputStream zos) throws IOException {
+        Files.walk(folder).forEach(path -> {
+            try {
+                String zipEntryName = parentFolder + "/" + folder.relativize(path).toString();
+                if (Files.isDirectory(path)) {
+                    if (!zipEntryName.endsWith("/")) {
+                        zipEntryName += "/";
+                    }
+                    ZipEntry zipEntry = new ZipEntry(zipEntryName);
+                    zos.putNextEntry(zipEntry);
+                    zos.closeEntry();
+                } else {
+                    ZipEntry zipEntry = new ZipEntry(zipEntryName);
+                    zos.putNextEntry(zipEntry);
+                    Files.copy(path, zos);
+                    zos.closeEntry();
+                }
+            } catch (IOException e) {
+                System.out.println("zip: " + e.getMessage());
+            }
+        });
+    }
+
+    public void unzip(String[] args) {
+        if (args.length == 0) {
+            System.out.println("unzip: missing archive name");
+            return;
+        }
+
+        String zipFileName = args[0];
+        String extractDir = terminal.pwd();
+
+        // Check for -d option
+        if (args.length >= 3 && "-d".equals(args[1])) {
+            extractDir = args[2];
+        }
+
+        Path zipPath = terminal.resolvePath(zipFileName);
+        Path extractPath = terminal.resolvePath(extractDir);
+
+        if (!Files.exists(zipPath)) {
+            System.out.println("unzip: cannot find " + zipFileName);
+            return;
+        }
+
+        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipPath.toFile()))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                Path entryPath = extractPath.resolve(entry.getName());
+
+                if (entry.isDirectory()) {
+                    Files.createDirectories(entryPath);
+                } else {
+                    Files.createDirectories(entryPath.getParent());
+                    Files.copy(zis, entryPath, StandardCopyOption.REPLACE_EXISTING);
+                }
+                zis.closeEntry();
+            }
+        } catch (IOException e) {
+            System.out.println("unzip: " + e.getMessage());
+        }
+    }
+}
+
 public class LinuxTerminal {
     private static String currentDir = System.getProperty("user.dir");
     private static String previousDir = currentDir;
     Parser parser;
+    private ZipCommands zipCommands; // created on first zip/unzip
 
     public LinuxTerminal() {
         this.parser = new Parser();
@@ -54,6 +173,13 @@ public class LinuxTerminal {
 
     public static void main(String[] args) {
         LinuxTerminal terminal = new LinuxTerminal();
+
+        // Single-command mode for scripts: java LinuxTerminal pwd
+        if (args.length > 0) {
+            terminal.processCommand(String.join(" ", args));
+            return;
+        }
+
         BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
 
         while (true) {
@@ -309,113 +435,20 @@ public class LinuxTerminal {
     }
 
     public void zip(String[] args) {
-        if (args.length < 2) {
-            System.out.println("zip: missing arguments");
-            return;
-        }
-
-        String zipFileName = args[0];
-        boolean recursive = false;
-        List<String> filesToZip = new ArrayList<>();
-
-        int startIndex = 1;
-        if ("-r".equals(args[1])) {
-            recursive = true;
-            startIndex = 2;
-            if (args.length < 3) {
-                System.out.println("zip: missing arguments");
-                return;
-            }
-        }
-
-        for (int i = startIndex; i < args.length; i++) {
-            filesToZip.add(args[i]);
-        }
-
-        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(resolvePath(zipFileName).toFile()))) {
-            for (String fileToZip : filesToZip) {
-                Path path = resolvePath(fileToZip);
-                if (Files.isDirectory(path) && recursive) {
-                    zipDirectory(path, path.getFileName().toString(), zos);
-                } else if (Files.isRegularFile(path)) {
-                    zipFile(path, path.getFileName().toString(), zos);
-                } else {
-                    System.out.println("zip: " + fileToZip + ": No such file or directory");
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("zip: " + e.getMessage());
-        }
-    }
-
-    private void zipFile(Path file, String fileName, ZipOutputStream zos) throws IOException {
-        ZipEntry zipEntry = new ZipEntry(fileName);
-        zos.putNextEntry(zipEntry);
-        Files.copy(file, zos);
-        zos.closeEntry();
-    }
-
-    private void zipDirectory(Path folder, String parentFolder, ZipOutputStream zos) throws IOException {
-        Files.walk(folder).forEach(path -> {
-            try {
-                String zipEntryName = parentFolder + "/" + folder.relativize(path).toString();
-                if (Files.isDirectory(path)) {
-                    if (!zipEntryName.endsWith("/")) {
-                        zipEntryName += "/";
-                    }
-                    ZipEntry zipEntry = new ZipEntry(zipEntryName);
-                    zos.putNextEntry(zipEntry);
-                    zos.closeEntry();
-                } else {
-                    ZipEntry zipEntry = new ZipEntry(zipEntryName);
-                    zos.putNextEntry(zipEntry);
-                    Files.copy(path, zos);
-                    zos.closeEntry();
-                }
-            } catch (IOException e) {
-                System.out.println("zip: " + e.getMessage());
-            }
-        });
+        zipCommands().zip(args);
     }
 
     public void unzip(String[] args) {
-        if (args.length == 0) {
-            System.out.println("unzip: missing archive name");
-            return;
-        }
-
-        String zipFileName = args[0];
-        String extractDir = currentDir;
-
-        // Check for -d option
-        if (args.length >= 3 && "-d".equals(args[1])) {
-            extractDir = args[2];
-        }
-
-        Path zipPath = resolvePath(zipFileName);
-        Path extractPath = resolvePath(extractDir);
-
-        if (!Files.exists(zipPath)) {
-            System.out.println("unzip: cannot find " + zipFileName);
-            return;
-        }
-
-        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(zipPath.toFile()))) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                Path entryPath = extractPath.resolve(entry.getName());
+        zipCommands().unzip(args);
+    }
 
-                if (entry.isDirectory()) {
-                    Files.createDirectories(entryPath);
-                } else {
-                    Files.createDirectories(entryPath.getParent());
-                    Files.copy(zis, entryPath, StandardCopyOption.REPLACE_EXISTING);
-                }
-                zis.closeEntry();
-            }
-        } catch (IOException e) {
-            System.out.println("unzip: " + e.getMessage());
+    // zip and unzip live in their own class so that java.util.zip is only loaded when one of
+    // them is actually run; this keeps startup and simple commands like pwd cheaper.
+    private ZipCommands zipCommands() {
+        if (zipCommands == null) {
+            zipCommands = new ZipCommands(this);
         }
+        return zipCommands;
     }
 
     private void handleRedirection(String input, boolean append) {
@@ -457,7 +490,7 @@ public class LinuxTerminal {
         }
     }
 
-    private Path resolvePath(String pathStr) {
+    Path resolvePath(String pathStr) {
         if (pathStr.startsWith("~")) {
             pathStr = System.getProperty("user.home") + pathStr.substring(1);
         }
@@ -0,0 +1,135 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Non-interactive capacity-planning mode. Every combination of pumps, waiting-area capacity
+// and arrival rate is run as its own SimulatedStation, spread over all cores, and the results
+// are printed as one table.
+//
+// Usage: java ServiceStation --sweep pumps=1:8 capacity=1:10 rate=0.5:8:0.5 [cars=20000] [service=1000]
+//                                    [policy=fifo,sjf,priority] [aging=5000] [seed=42]
+// Ranges are from:to[:step] (inclusive); a single value is also accepted. service is a Workload
+// spec such as "0.2@exp:300;0.8@lognormal:1500:0.8"; policy is a comma-separated list.
+public class ParameterSweep {
+
+    public static void main(String[] args) throws InterruptedException {
+        double[] pumps = {1, 4, 1};
+        double[] capacity = {1, 10, 1};
+        double[] rate = {0.5, 4, 0.5};
+        int numberOfCars = 20000;
+        Workload workload = Workload.fixed(1000);
+        QueueDiscipline[] policies = {QueueDiscipline.FIFO};
+        long agingMillis = 5000;
+        long seed = 42;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                System.out.println("sweep: expected key=value but got '" + arg + "'");
+                return;
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "pumps":
+                    pumps = parseRange(value);
+                    break;
+                case "capacity":
+                    capacity = parseRange(value);
+                    break;
+                case "rate":
+                    rate = parseRange(value);
+                    break;
+                case "cars":
+                    numberOfCars = Integer.parseInt(value);
+                    break;
+                case "service":
+                    workload = Workload.parse(value);
+                    break;
+                case "policy": {
+                    String[] names = value.split(",");
+                    policies = new QueueDiscipline[names.length];
+                    for (int i = 0; i < names.length; i++) {
+                        policies[i] = QueueDiscipline.parse(names[i]);
+                    }
+                    break;
+                }
+                case "aging":
+                    agingMillis = Long.parseLong(value);
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    System.out.println("sweep: unknown parameter '" + key + "'");
+                    return;
+            }
+        }
+
+        // {pumps, capacity, rate, policy index}
+        List<double[]> combinations = new ArrayList<>();
+        for (double p = pumps[0]; p <= pumps[1] + 1e-9; p += pumps[2]) {
+            for (double c = capacity[0]; c <= capacity[1] + 1e-9; c += capacity[2]) {
+                for (double r = rate[0]; r <= rate[1] + 1e-9; r += rate[2]) {
+                    for (int q = 0; q < policies.length; q++) {
+                        combinations.add(new double[]{p, c, r, q});
+                    }
+                }
+            }
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<String>> rows = new ArrayList<>(combinations.size());
+        long start = System.nanoTime();
+        try {
+            for (double[] combination : combinations) {
+                final int cars = numberOfCars;
+                final Workload runWorkload = workload;
+                final QueueDiscipline policy = policies[(int) combination[3]];
+                final long aging = agingMillis;
+                final long runSeed = seed;
+                rows.add(executor.submit(() -> runOne((int) combination[0], (int) combination[1], combination[2],
+                        policy, cars, runWorkload, aging, runSeed)));
+            }
+
+            System.out.printf("%6s %9s %8s %18s %14s %10s %13s %12s%n", "pumps", "capacity", "rate/s", "policy",
+                    "throughput/s", "drop %", "mean wait ms", "p99 wait ms");
+            for (Future<String> row : rows) {
+                System.out.println(row.get());
+            }
+        } catch (ExecutionException e) {
+            System.out.println("sweep: " + e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.printf("%n%d combinations on %d threads in %.1f s%n",
+                combinations.size(), threads, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static String runOne(int pumps, int capacity, double rate, QueueDiscipline policy, int cars,
+                                 Workload workload, long agingMillis, long seed) {
+        SimulatedStation station = new SimulatedStation(pumps, capacity, rate, workload, policy, agingMillis);
+        SimulatedStation.Result result = station.run(cars, seed);
+        StationMetrics metrics = result.getMetrics();
+        return String.format("%6d %9d %8.2f %18s %14.3f %10.2f %13.1f %12.1f", pumps, capacity, rate, policy,
+                metrics.throughput(result.getElapsedNanos()), metrics.dropRate() * 100,
+                metrics.meanWaitMillis(), metrics.percentileWaitMillis(99));
+    }
+
+    // Parses "from:to[:step]" or a single value into {from, to, step}
+    private static double[] parseRange(String value) {
+        String[] parts = value.split(":");
+        double from = Double.parseDouble(parts[0]);
+        double to = parts.length > 1 ? Double.parseDouble(parts[1]) : from;
+        double step = parts.length > 2 ? Double.parseDouble(parts[2]) : 1;
+        if (step <= 0 || to < from) {
+            throw new IllegalArgumentException("Invalid range: " + value);
+        }
+        return new double[]{from, to, step};
+    }
+}
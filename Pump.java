@@ -1,66 +1,160 @@
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 
 public class Pump extends Thread {
     private final int pumpId;
-    private final Queue<Car> waitingQueue;
-    private final Semaphore mutex;
-    private final Semaphore empty;
-    private final Semaphore full;
-    private final Semaphore serviceBays; // Provided by ServiceStation; not strictly necessary with one thread per pump
+    private final WaitingArea home;
+    private final WaitingArea[] stealFrom; // other shards this pump may take cars from when idle
+    private final Semaphore serviceBays; // limits how many pumps can be washing at the same time (per shard)
+    private final int batchSize;          // max cars taken from the queue per critical section
+    private final boolean retirable;      // started by a PumpController, which may retire it when idle
+    private volatile int servicedCount;   // only written by this pump's thread
+    private volatile int stolenCount;     // cars taken from another shard, only written by this pump's thread
+    private volatile long busyNanos;      // time spent on finished washes, only written by this pump's thread
+    private volatile long serviceStartNanos; // start of the wash in progress, 0 between cars
+    private volatile long idleSinceNanos = System.nanoTime(); // 0 while washing
+    private volatile boolean retired;
+
+    // How long an idle sharded or retirable pump waits on its own queue before checking again
+    private static final long POLL_MILLIS = 5;
 
     public Pump(int pumpId, Queue<Car> waitingQueue, Semaphore mutex, Semaphore empty, Semaphore full, Semaphore serviceBays) {
+        this(pumpId, waitingQueue, mutex, empty, full, serviceBays, 1);
+    }
+
+    public Pump(int pumpId, Queue<Car> waitingQueue, Semaphore mutex, Semaphore empty, Semaphore full, Semaphore serviceBays,
+                int batchSize) {
+        this(pumpId, new WaitingArea(0, waitingQueue, mutex, empty, full), new WaitingArea[0], serviceBays, batchSize);
+    }
+
+    // Sharded station: the pump serves its home area and steals from stealFrom when home is empty
+    public Pump(int pumpId, WaitingArea home, WaitingArea[] stealFrom, Semaphore serviceBays, int batchSize) {
+        this(pumpId, home, stealFrom, serviceBays, batchSize, false);
+    }
+
+    // Elastic pool: a retirable pump stops once retire() is called and it has nothing in hand
+    public Pump(int pumpId, WaitingArea home, WaitingArea[] stealFrom, Semaphore serviceBays, int batchSize,
+                boolean retirable) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
         this.pumpId = pumpId;
-        this.waitingQueue = waitingQueue;
-        this.mutex = mutex;
-        this.empty = empty;
-        this.full = full;
+        this.home = home;
+        this.stealFrom = stealFrom;
         this.serviceBays = serviceBays;
+        this.batchSize = batchSize;
+        this.retirable = retirable;
         setName("Pump-" + pumpId);
-        setDaemon(true); // allow JVM to exit once main finishes and cars are done
+        setDaemon(true); // drivers close the waiting area and join; this only keeps an abandoned run from holding the JVM
+    }
+
+    public int getServicedCount() {
+        return servicedCount;
+    }
+
+    public int getStolenCount() {
+        return stolenCount;
+    }
+
+    public WaitingArea getHome() {
+        return home;
+    }
+
+    public int getPumpId() {
+        return pumpId;
+    }
+
+    // Total time spent washing, including the car being washed right now. Reads busyNanos
+    // before serviceStartNanos so a wash that just ended is counted at most once.
+    public long getBusyNanos() {
+        long busy = busyNanos;
+        long start = serviceStartNanos;
+        return start == 0 ? busy : busy + System.nanoTime() - start;
+    }
+
+    // How long the pump has had no car in hand, or 0 while it is washing
+    public long idleNanos() {
+        long since = idleSinceNanos;
+        return since == 0 ? 0 : System.nanoTime() - since;
+    }
+
+    // Asks the pump to stop; it finishes any cars it already took from the queue first
+    public void retire() {
+        retired = true;
     }
 
     @Override
     public void run() {
-        while (true) {
+        List<Car> batch = new ArrayList<>(batchSize);
+        while (!retired) {
             try {
-                // Wait until a car is available
-                full.acquire();
+                // Wait until at least one car is available, then claim up to batchSize of them.
+                // Every full permit taken stands for a car that is already in that area's queue.
+                WaitingArea source = home;
+                int claimed;
+                if (stealFrom.length == 0 && !retirable) {
+                    claimed = home.getFull().acquireUpTo(batchSize);
+                } else {
+                    claimed = home.getFull().tryAcquireUpTo(batchSize, POLL_MILLIS);
+                    for (int i = 0; claimed == 0 && i < stealFrom.length; i++) {
+                        source = stealFrom[(pumpId + i) % stealFrom.length]; // spread thieves over the shards
+                        if (!source.isClosed()) { // a closed shard is drained by its own pumps
+                            claimed = source.getFull().tryAcquireUpTo(batchSize, 0);
+                        }
+                    }
+                    if (claimed == 0) {
+                        continue;
+                    }
+                }
 
-                // Critical section: remove a car from the queue
-                Car car;
+                // Critical section: remove the whole batch from the queue at once
+                batch.clear();
+                Semaphore mutex = source.getMutex();
                 mutex.acquire();
                 try {
-                    car = waitingQueue.poll();
+                    for (int i = 0; i < claimed; i++) {
+                        Car car = source.getWaitingQueue().poll();
+                        if (car == null) {
+                            break;
+                        }
+                        batch.add(car);
+                    }
                 } finally {
                     mutex.release();
                 }
 
-                // A spot in waiting area is now free
-                empty.release();
-
-                if (car == null) {
-                    continue;
+                if (source != home) {
+                    stolenCount += batch.size();
+                    source.getMetrics().recordStolen(batch.size());
                 }
 
-                // Optionally coordinate with service bay capacity (defensive; with 1 thread/pump this is a no-op)
-                boolean acquiredBay = serviceBays.tryAcquire();
-                if (!acquiredBay) {
-                    // If not acquired (shouldn't happen with 1:1 pump threads), just proceed to avoid deadlock
+                // A permit without a car behind it is the close signal from WaitingArea.close():
+                // the queue is drained and no more cars will come. Pass it on so the next pump
+                // wakes up too, then stop once the cars in hand are done.
+                int surplus = claimed - batch.size();
+                boolean closed = surplus > 0;
+                if (closed) {
+                    source.getFull().release(surplus);
                 }
 
-                System.out.println("[SERVICE] Pump " + pumpId + " is washing " + car.getCarName());
-
-                // Simulate service time
+                // A batched car keeps its waiting-area spot (its empty permit) until its own wash
+                // starts, so queued plus parked cars never exceed waitingAreaCapacity
+                idleSinceNanos = 0;
+                int started = 0;
                 try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+                    for (Car car : batch) {
+                        source.getEmpty().release();
+                        started++;
+                        service(car, source);
+                    }
+                } finally {
+                    source.getEmpty().release(batch.size() - started); // only short if interrupted
+                    idleSinceNanos = System.nanoTime();
                 }
 
-                System.out.println("[DONE] Pump " + pumpId + " finished " + car.getCarName());
-
-                if (acquiredBay) {
-                    serviceBays.release();
+                if (closed && source == home) {
+                    break;
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -68,6 +162,39 @@ public class Pump extends Thread {
             }
         }
     }
-}
 
+    private void service(Car car, WaitingArea source) throws InterruptedException {
+        // Only serviceBays pumps can wash at once; with one pump per bay this never waits
+        serviceBays.acquire();
+        long start = System.nanoTime();
+        serviceStartNanos = start;
+
+        source.getMetrics().recordServiced(System.nanoTime() - car.getArrivalNanos());
+        if (EventLog.isEnabled()) {
+            EventLog.record(EventLog.SERVICE, car.getSequence(), pumpId);
+        } else {
+            System.out.println("[SERVICE] Pump " + pumpId + " is washing " + car.getCarName());
+        }
+
+        // Simulate service time; each car carries its own service demand
+        if (car.getServiceDemandMillis() > 0) {
+            try {
+                Thread.sleep(car.getServiceDemandMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (EventLog.isEnabled()) {
+            EventLog.record(EventLog.DONE, car.getSequence(), pumpId);
+        } else {
+            System.out.println("[DONE] Pump " + pumpId + " finished " + car.getCarName());
+        }
+        servicedCount++;
+        long end = System.nanoTime();
+        serviceStartNanos = 0;
+        busyNanos += end - start;
 
+        serviceBays.release();
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Grows and shrinks the set of pumps serving one waiting area, like opening and closing bays
+// as load changes. Every sampleMillis it opens one more pump if the queue is deeper than
+// scaleUpDepth or recent waits are longer than scaleUpWaitMillis, and retires pumps that have
+// been idle for idleMillis. The pool stays between minPumps and maxPumps, and serviceBays
+// (created with bays permits, possibly fewer than maxPumps) caps how many pumps can wash at
+// once. A scale-up is skipped and counted as blocked while every bay is busy.
+public class PumpController extends Thread {
+    private final WaitingArea area;
+    private final Semaphore serviceBays;
+    private final int minPumps;
+    private final int maxPumps;
+    private final int bays;
+    private final int scaleUpDepth;
+    private final long scaleUpWaitMillis;
+    private final long idleMillis;
+    private final long sampleMillis;
+    private final int batchSize;
+
+    private final List<Pump> pumps = new ArrayList<>(); // only touched by the controller thread
+    private final List<Pump> retiredPumps = new ArrayList<>(); // may still be finishing their last cars
+    private final List<String> timeline = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+    private int nextPumpId = 1;
+    private long retiredBusyNanos; // work done by pumps that have already been retired
+    private volatile int blockedScaleUps; // scale-ups skipped because no bay was free
+    private volatile boolean stopped;
+
+    public PumpController(WaitingArea area, int minPumps, int maxPumps, int bays, int scaleUpDepth,
+                          long scaleUpWaitMillis, long idleMillis, long sampleMillis, int batchSize) {
+        if (minPumps < 1 || maxPumps < minPumps) {
+            throw new IllegalArgumentException("Need 1 <= minPumps <= maxPumps");
+        }
+        if (bays < 1) {
+            throw new IllegalArgumentException("Need at least one service bay");
+        }
+        this.area = area;
+        this.serviceBays = new Semaphore(bays);
+        this.minPumps = minPumps;
+        this.maxPumps = maxPumps;
+        this.bays = bays;
+        this.scaleUpDepth = scaleUpDepth;
+        this.scaleUpWaitMillis = scaleUpWaitMillis;
+        this.idleMillis = idleMillis;
+        this.sampleMillis = sampleMillis;
+        this.batchSize = batchSize;
+        setName("PumpController");
+        setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < minPumps; i++) {
+            openPump();
+        }
+
+        StationMetrics metrics = area.getMetrics();
+        long lastServiced = metrics.getServiced();
+        long lastWaitNanos = metrics.getTotalWaitNanos();
+        long lastBusyNanos = 0;
+        long lastSample = System.nanoTime();
+
+        while (!stopped) {
+            try {
+                Thread.sleep(sampleMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            // Recent mean wait over the cars that started service since the last sample
+            long serviced = metrics.getServiced();
+            long waitNanos = metrics.getTotalWaitNanos();
+            double recentWaitMillis = serviced == lastServiced ? 0 : (waitNanos - lastWaitNanos) / 1e6 / (serviced - lastServiced);
+            lastServiced = serviced;
+            lastWaitNanos = waitNanos;
+
+            // Utilization: share of the open pumps' time spent washing since the last sample,
+            // counting washes still in progress so long services do not read as idle
+            long now = System.nanoTime();
+            long busyNanos = totalBusyNanos();
+            double utilization = (busyNanos - lastBusyNanos) / (double) ((now - lastSample) * pumps.size());
+            lastBusyNanos = busyNanos;
+            lastSample = now;
+
+            int depth = area.depth();
+            int baysBusy = bays - serviceBays.availablePermits();
+            String note = "";
+            if ((depth > scaleUpDepth || recentWaitMillis > scaleUpWaitMillis) && pumps.size() < maxPumps) {
+                // Another pump only helps if it can get a bay; otherwise it would just wait for one
+                if (baysBusy < bays) {
+                    openPump();
+                } else {
+                    blockedScaleUps++;
+                    note = "  scale-up blocked: no free bay";
+                }
+            } else {
+                retireIdlePumps();
+            }
+
+            timeline.add(String.format("%8.1f s %6d %6d %6d %13.1f %7.0f%%%s", (now - startNanos) / 1e9, pumps.size(),
+                    baysBusy, depth, recentWaitMillis, Math.min(1.0, utilization) * 100, note));
+        }
+    }
+
+    // Stops scaling, closes the waiting area and waits until the open pumps have washed every
+    // queued car and exited. Call it once no more cars will arrive.
+    public void shutdown() throws InterruptedException {
+        stopped = true;
+        interrupt();
+        join();
+        area.close();
+        for (Pump pump : pumps) {
+            pump.join();
+        }
+        for (Pump pump : retiredPumps) {
+            pump.join();
+        }
+    }
+
+    public int getBlockedScaleUps() {
+        return blockedScaleUps;
+    }
+
+    // One line per sample: elapsed time, open pumps, busy bays, queue depth, recent mean wait, utilization
+    public void printTimeline() {
+        System.out.printf("%10s %6s %6s %6s %13s %8s%n", "time", "pumps", "bays", "depth", "wait ms", "util");
+        for (String line : timeline) {
+            System.out.println(line);
+        }
+    }
+
+    private void openPump() {
+        Pump pump = new Pump(nextPumpId++, area, new WaitingArea[0], serviceBays, batchSize, true);
+        pumps.add(pump);
+        pump.start();
+    }
+
+    private void retireIdlePumps() {
+        long idleNanos = idleMillis * 1_000_000L;
+        for (int i = pumps.size() - 1; i >= 0 && pumps.size() > minPumps; i--) {
+            Pump pump = pumps.get(i);
+            if (pump.idleNanos() > idleNanos) {
+                pump.retire();
+                retiredBusyNanos += pump.getBusyNanos();
+                retiredPumps.add(pump);
+                pumps.remove(i);
+            }
+        }
+    }
+
+    private long totalBusyNanos() {
+        long total = retiredBusyNanos;
+        for (Pump pump : pumps) {
+            total += pump.getBusyNanos();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,53 @@
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+// Order in which pumps take cars out of the waiting area. The waiting-area capacity is enforced
+// by the empty semaphore, so every discipline keeps the same limit.
+public enum QueueDiscipline {
+    FIFO,
+    SHORTEST_JOB_FIRST,
+    PRIORITY;
+
+    // With PRIORITY each class step is worth this much waiting time: a class 1 car that has
+    // waited agingMillis longer than a class 0 car is treated as equally urgent, so low
+    // priority cars cannot starve. Because every waiting car ages at the same rate the ranks
+    // never change while cars wait, which keeps them usable as PriorityQueue keys.
+    public long rank(long arrivalNanos, long serviceDemandMillis, int serviceClass, long agingMillis) {
+        switch (this) {
+            case SHORTEST_JOB_FIRST:
+                return serviceDemandMillis;
+            case PRIORITY:
+                return arrivalNanos + serviceClass * agingMillis * 1_000_000L;
+            case FIFO:
+            default:
+                return arrivalNanos;
+        }
+    }
+
+    public Queue<Car> newQueue(long agingMillis) {
+        if (this == FIFO) {
+            return new LinkedList<>();
+        }
+        Comparator<Car> order = Comparator
+                .comparingLong((Car car) -> rank(car.getArrivalNanos(), car.getServiceDemandMillis(), car.getServiceClass(), agingMillis))
+                .thenComparingLong(Car::getSequence);
+        return new PriorityQueue<>(order);
+    }
+
+    // Accepts the names used on the command line: fifo, sjf, priority (or the enum names)
+    public static QueueDiscipline parse(String name) {
+        switch (name.toLowerCase()) {
+            case "fifo":
+                return FIFO;
+            case "sjf":
+            case "shortest_job_first":
+                return SHORTEST_JOB_FIRST;
+            case "priority":
+                return PRIORITY;
+            default:
+                throw new IllegalArgumentException("Unknown queue discipline: " + name);
+        }
+    }
+}
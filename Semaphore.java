@@ -15,6 +15,39 @@ public class Semaphore {
         permits--;
     }
 
+    // Blocks until at least one permit is available, then takes as many as possible up to max.
+    // Returns the number of permits taken (always between 1 and max).
+    public synchronized int acquireUpTo(int max) throws InterruptedException {
+        if (max < 1) {
+            throw new IllegalArgumentException("max must be at least 1");
+        }
+        while (permits == 0) {
+            wait();
+        }
+        int taken = Math.min(max, permits);
+        permits -= taken;
+        return taken;
+    }
+
+    // Like acquireUpTo, but gives up after timeoutMillis and returns 0 if no permit became available.
+    // A timeout of 0 never waits.
+    public synchronized int tryAcquireUpTo(int max, long timeoutMillis) throws InterruptedException {
+        if (max < 1) {
+            throw new IllegalArgumentException("max must be at least 1");
+        }
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        while (permits == 0) {
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000L;
+            if (remainingMillis <= 0) {
+                return 0;
+            }
+            wait(remainingMillis);
+        }
+        int taken = Math.min(max, permits);
+        permits -= taken;
+        return taken;
+    }
+
     public synchronized boolean tryAcquire() {
         if (permits > 0) {
             permits--;
@@ -23,11 +56,28 @@ public class Semaphore {
         return false;
     }
 
+    // Waits at most timeoutMillis for a permit; returns false if none became available in time
+    public synchronized boolean tryAcquire(long timeoutMillis) throws InterruptedException {
+        return tryAcquireUpTo(1, timeoutMillis) == 1;
+    }
+
     public synchronized void release() {
         permits++;
         notifyAll();
     }
 
+    // Returns several permits with a single wake-up instead of one per permit
+    public synchronized void release(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Cannot release a negative number of permits");
+        }
+        if (count == 0) {
+            return;
+        }
+        permits += count;
+        notifyAll();
+    }
+
     public synchronized int availablePermits() {
         return permits;
     }
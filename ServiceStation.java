@@ -1,11 +1,82 @@
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
 
 public class ServiceStation {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException, IOException {
+
+        // Non-interactive capacity-planning sweep; see ParameterSweep for the parameters
+        if (args.length > 0 && "--sweep".equals(args[0])) {
+            ParameterSweep.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Several waiting queues with their own pump groups; see ShardedStation for the parameters
+        if (args.length > 0 && "--sharded".equals(args[0])) {
+            ShardedStation.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Pumps opened and closed with the load; see ElasticStation for the parameters
+        if (args.length > 0 && "--elastic".equals(args[0])) {
+            ElasticStation.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Record a run to a workload trace or replay one; see TraceStation for the parameters
+        if (args.length > 0 && "--trace".equals(args[0])) {
+            TraceStation.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Optional: --batch N lets each pump take up to N waiting cars per critical section
+        //           --bays N caps how many pumps wash at once (default: one bay per pump)
+        //           --service SPEC draws each car's class and service time (see Workload.parse)
+        //           --policy fifo|sjf|priority and --aging MS choose the waiting-area discipline
+        //           --admission block|balk|renege:MS|overflow:SIZE decides what cars do when it is full
+        //           --eventlog FILE writes binary events instead of console lines (see EventLogDecoder)
+        int batchSize = 1;
+        int numberOfBays = 0;
+        Workload workload = Workload.fixed(1000);
+        QueueDiscipline discipline = QueueDiscipline.FIFO;
+        long agingMillis = 5000;
+        String admission = "block";
+        for (int i = 0; i + 1 < args.length; i++) {
+            switch (args[i]) {
+                case "--batch":
+                    batchSize = Integer.parseInt(args[++i]);
+                    break;
+                case "--bays":
+                    numberOfBays = Integer.parseInt(args[++i]);
+                    break;
+                case "--service":
+                    workload = Workload.parse(args[++i]);
+                    break;
+                case "--policy":
+                    discipline = QueueDiscipline.parse(args[++i]);
+                    break;
+                case "--aging":
+                    agingMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--admission":
+                    admission = args[++i];
+                    break;
+                case "--eventlog":
+                    try {
+                        EventLog.open(args[++i]);
+                    } catch (IOException e) {
+                        System.out.println("eventlog: cannot open " + args[i] + ": " + e.getMessage());
+                        return;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
 
         Scanner input = new Scanner(System.in);
 
@@ -21,25 +92,16 @@ public class ServiceStation {
 
         System.out.println("\nSimulation starting...\n");
 
-        // ----------- Shared Resources -----------
-        Queue<Car> waitingQueue = new LinkedList<>();
-
-        // Semaphores for synchronization
-        Semaphore mutex = new Semaphore(1);                  // mutual exclusion
-        Semaphore empty = new Semaphore(waitingAreaCapacity); // spaces in waiting area
-        Semaphore full = new Semaphore(0);                    // cars waiting
-        Semaphore serviceBays = new Semaphore(numberOfPumps); // available pumps
+        // ----------- Station: waiting area, semaphores and pump threads (consumers) -----------
+        Station station = new Station(numberOfPumps, numberOfBays > 0 ? numberOfBays : numberOfPumps, waitingAreaCapacity,
+                batchSize, discipline, agingMillis, admission);
+        station.start();
+        SplittableRandom random = new SplittableRandom();
 
-        // ----------- Start Pump Threads (Consumers) -----------
-        for (int i = 0; i < numberOfPumps; i++) {
-            Pump pump = new Pump(i + 1, waitingQueue, mutex, empty, full, serviceBays);
-            pump.start();
-        }
-
-        // ----------- Start Car Threads (Producers) -----------
+        // ----------- Car Arrivals (producers) -----------
         for (int i = 0; i < numberOfCars; i++) {
-            Car car = new Car("C" + (i + 1), waitingQueue, mutex, empty, full);
-            car.start();
+            int serviceClass = workload.sampleClass(random);
+            station.arrive("C" + (i + 1), serviceClass, workload.sampleDemandMillis(serviceClass, random));
 
             // optional delay to simulate arrival timing
             try {
@@ -53,5 +115,13 @@ public class ServiceStation {
         System.out.println("\nAll cars have been created and are arriving...\n");
         System.out.println(" Pumps and Cars are running concurrently...");
         System.out.println("=============================================");
+
+        // Stop arrivals and drain: every car that arrived is washed before the pumps stop
+        station.shutdown();
+        station.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        StationMetrics metrics = station.getMetrics();
+        System.out.println("\n[ADMISSION] " + admission + " - accepted: " + metrics.getAccepted()
+                + ", rejected: " + metrics.getRejected() + ", abandoned: " + metrics.getAbandoned());
+        System.out.printf("[CLOSED] %d cars washed in %.1f s%n", metrics.getServiced(), station.getElapsedNanos() / 1e9);
     }
 }
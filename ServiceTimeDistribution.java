@@ -0,0 +1,110 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// How long a car occupies a pump, in milliseconds
+public interface ServiceTimeDistribution {
+
+    long sampleMillis(SplittableRandom random);
+
+    // A copy for one run. Stateless distributions return themselves; a trace starts again from
+    // its first value, so runs on different threads never share a cursor.
+    default ServiceTimeDistribution copy() {
+        return this;
+    }
+
+    static ServiceTimeDistribution fixed(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Service time cannot be negative");
+        }
+        return random -> millis;
+    }
+
+    static ServiceTimeDistribution exponential(double meanMillis) {
+        if (meanMillis <= 0) {
+            throw new IllegalArgumentException("Mean service time must be positive");
+        }
+        return random -> Math.round(-Math.log(1.0 - random.nextDouble()) * meanMillis);
+    }
+
+    // Lognormal with the given mean and shape sigma (the standard deviation of the underlying normal)
+    static ServiceTimeDistribution lognormal(double meanMillis, double sigma) {
+        if (meanMillis <= 0 || sigma < 0) {
+            throw new IllegalArgumentException("Lognormal needs a positive mean and a non-negative sigma");
+        }
+        double mu = Math.log(meanMillis) - sigma * sigma / 2;
+        return random -> {
+            // Box-Muller transform for a standard normal sample
+            double u1 = 1.0 - random.nextDouble();
+            double u2 = random.nextDouble();
+            double normal = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+            return Math.round(Math.exp(mu + sigma * normal));
+        };
+    }
+
+    // Replays service times recorded one per line in a file, wrapping around at the end.
+    // Blank lines and lines starting with # are ignored. The cursor is not thread-safe:
+    // each run samples from its own copy().
+    static ServiceTimeDistribution trace(String fileName) {
+        long[] values;
+        try {
+            List<String> lines = Files.readAllLines(Paths.get(fileName));
+            values = lines.stream()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .mapToLong(Long::parseLong)
+                    .toArray();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read service time trace '" + fileName + "': " + e.getMessage());
+        }
+        if (values.length == 0) {
+            throw new IllegalArgumentException("Service time trace '" + fileName + "' is empty");
+        }
+        return traceCursor(values);
+    }
+
+    private static ServiceTimeDistribution traceCursor(long[] values) {
+        return new ServiceTimeDistribution() {
+            private int next;
+
+            @Override
+            public long sampleMillis(SplittableRandom random) {
+                long value = values[next];
+                next = (next + 1) % values.length;
+                return value;
+            }
+
+            @Override
+            public ServiceTimeDistribution copy() {
+                return traceCursor(values);
+            }
+        };
+    }
+
+    // Accepts fixed:MS, exp:MEAN, lognormal:MEAN:SIGMA, trace:FILE, or a bare number meaning fixed
+    static ServiceTimeDistribution parse(String spec) {
+        String[] parts = spec.split(":", 2);
+        if (parts.length == 1) {
+            return fixed(Long.parseLong(spec));
+        }
+        String[] params = parts[1].split(":");
+        switch (parts[0].toLowerCase()) {
+            case "fixed":
+                return fixed(Long.parseLong(params[0]));
+            case "exp":
+            case "exponential":
+                return exponential(Double.parseDouble(params[0]));
+            case "lognormal":
+                if (params.length != 2) {
+                    throw new IllegalArgumentException("lognormal needs MEAN:SIGMA");
+                }
+                return lognormal(Double.parseDouble(params[0]), Double.parseDouble(params[1]));
+            case "trace":
+                return trace(parts[1]);
+            default:
+                throw new IllegalArgumentException("Unknown service time distribution: " + spec);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+// Sharded car wash: several waiting areas, each with its own mutex and its own group of pumps.
+// Arriving cars are routed to one area; idle pumps steal cars from the other areas.
+//
+// Usage: java ServiceStation --sharded [shards=4] [pumps=2] [bays=pumps] [capacity=5] [cars=200]
+//                                      [router=rr|shortest|p2c] [steal=true] [service=100] [gap=10]
+//                                      [admission=block|balk|renege:MS|overflow:SIZE] [quiet=false]
+//                                      [eventlog=FILE]
+// pumps, bays and capacity are per shard; bays caps how many of a shard's pumps (including ones
+// washing stolen cars) wash at once. service and gap (time between arrivals) are in milliseconds.
+public class ShardedStation {
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int shards = 4;
+        int pumpsPerShard = 2;
+        int baysPerShard = 0; // 0 means one per pump
+        int capacity = 5;
+        int numberOfCars = 200;
+        ArrivalRouter router = new ArrivalRouter(ArrivalRouter.Strategy.POWER_OF_TWO);
+        boolean steal = true;
+        long serviceTimeMillis = 100;
+        long arrivalGapMillis = 10;
+        String admission = "block";
+        boolean quiet = false;
+        String eventLogFile = null;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                System.out.println("sharded: expected key=value but got '" + arg + "'");
+                return;
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "shards":
+                    shards = Integer.parseInt(value);
+                    break;
+                case "pumps":
+                    pumpsPerShard = Integer.parseInt(value);
+                    break;
+                case "bays":
+                    baysPerShard = Integer.parseInt(value);
+                    break;
+                case "capacity":
+                    capacity = Integer.parseInt(value);
+                    break;
+                case "cars":
+                    numberOfCars = Integer.parseInt(value);
+                    break;
+                case "router":
+                    router = ArrivalRouter.parse(value);
+                    break;
+                case "steal":
+                    steal = Boolean.parseBoolean(value);
+                    break;
+                case "service":
+                    serviceTimeMillis = Long.parseLong(value);
+                    break;
+                case "gap":
+                    arrivalGapMillis = Long.parseLong(value);
+                    break;
+                case "admission":
+                    admission = value;
+                    break;
+                case "eventlog":
+                    eventLogFile = value;
+                    break;
+                case "quiet":
+                    quiet = Boolean.parseBoolean(value);
+                    break;
+                default:
+                    System.out.println("sharded: unknown parameter '" + key + "'");
+                    return;
+            }
+        }
+
+        if (baysPerShard == 0) {
+            baysPerShard = pumpsPerShard;
+        }
+
+        // ----------- Shared Resources, one set per shard -----------
+        WaitingArea[] areas = new WaitingArea[shards];
+        for (int s = 0; s < shards; s++) {
+            areas[s] = new WaitingArea(s, new LinkedList<>(), new Semaphore(1), new Semaphore(capacity), new Semaphore(0),
+                    AdmissionPolicy.parse(admission));
+        }
+
+        if (eventLogFile != null) {
+            EventLog.open(eventLogFile);
+        }
+        PrintStream originalOut = System.out;
+        if (quiet) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        // ----------- Start Pump Threads, a group per shard -----------
+        List<Pump> pumps = new ArrayList<>();
+        for (int s = 0; s < shards; s++) {
+            WaitingArea[] others = new WaitingArea[0];
+            if (steal) {
+                others = new WaitingArea[shards - 1];
+                for (int o = 0, k = 0; o < shards; o++) {
+                    if (o != s) {
+                        others[k++] = areas[o];
+                    }
+                }
+            }
+            // Bays belong to the shard too, so no monitor is shared by pumps of different shards
+            Semaphore serviceBays = new Semaphore(baysPerShard);
+            for (int p = 0; p < pumpsPerShard; p++) {
+                Pump pump = new Pump(pumps.size() + 1, areas[s], others, serviceBays, 1);
+                pumps.add(pump);
+                pump.start();
+            }
+        }
+
+        // ----------- Start Car Threads, routed to a shard on arrival -----------
+        long start = System.nanoTime();
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < numberOfCars; i++) {
+            Car car = new Car("C" + (i + 1), areas, router, 0, serviceTimeMillis);
+            car.start();
+            // Finished cars are dropped so a long overloaded run does not hold on to every car
+            cars.add(car);
+            if (cars.size() >= 1024) {
+                cars.removeIf(c -> !c.isAlive());
+            }
+            if (arrivalGapMillis > 0) {
+                Thread.sleep(arrivalGapMillis);
+            }
+        }
+
+        // Every car ends once it has joined a queue or left. Then close every area: each shard's
+        // pumps drain their own queue (thieves skip closed shards) and exit.
+        for (Car car : cars) {
+            car.join();
+        }
+        for (WaitingArea area : areas) {
+            area.close();
+        }
+        for (Pump pump : pumps) {
+            pump.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.setOut(originalOut);
+        EventLog.close();
+
+        // ----------- Per-shard and station-wide report -----------
+        System.out.printf("%nrouter=%s steal=%b shards=%d pumps/shard=%d bays/shard=%d capacity/shard=%d"
+                + " admission=%s%n", router.getStrategy(), steal, shards, pumpsPerShard, baysPerShard, capacity, admission);
+        System.out.printf("%6s %9s %9s %10s %9s %11s %10s %14s %13s %12s%n", "shard", "accepted", "rejected", "abandoned",
+                "serviced", "stolen out", "stolen in", "throughput/s", "mean wait ms", "p99 wait ms");
+        StationMetrics total = new StationMetrics();
+        for (WaitingArea area : areas) {
+            StationMetrics metrics = area.getMetrics();
+            total.merge(metrics);
+            int stolenIn = 0;
+            for (Pump pump : pumps) {
+                if (pump.getHome() == area) {
+                    stolenIn += pump.getStolenCount();
+                }
+            }
+            System.out.printf("%6d %9d %9d %10d %9d %11d %10d %14.2f %13.1f %12.1f%n", area.getAreaId(),
+                    metrics.getAccepted(), metrics.getRejected(), metrics.getAbandoned(), metrics.getServiced(),
+                    metrics.getStolen(), stolenIn, metrics.throughput(elapsed), metrics.meanWaitMillis(),
+                    metrics.percentileWaitMillis(99));
+        }
+        System.out.printf("%6s %9d %9d %10d %9d %11d %10d %14.2f %13.1f %12.1f%n", "all", total.getAccepted(),
+                total.getRejected(), total.getAbandoned(), total.getServiced(), total.getStolen(), total.getStolen(),
+                total.throughput(elapsed), total.meanWaitMillis(), total.percentileWaitMillis(99));
+        System.out.println("serviced, throughput and waits count the cars that queued in the shard, whichever pump"
+                + " washed them;");
+        System.out.println("stolen out = its cars washed by other shards' pumps, stolen in = cars its pumps took"
+                + " from other shards");
+    }
+}
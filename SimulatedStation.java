@@ -0,0 +1,158 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+// Single-threaded discrete-event model of the car wash used for capacity planning.
+// It follows the same rules as the threaded station (numberOfPumps bays, a waiting area
+// with waitingAreaCapacity spots, a queue discipline) but advances a virtual clock instead
+// of sleeping, so a run of thousands of cars takes milliseconds. Cars that arrive while the
+// waiting area is full leave immediately and are counted as dropped.
+public class SimulatedStation {
+    private final int numberOfPumps;
+    private final int waitingAreaCapacity;
+    private final double arrivalRatePerSecond;
+    private final Workload workload;
+    private final QueueDiscipline discipline;
+    private final long agingMillis;
+
+    public SimulatedStation(int numberOfPumps, int waitingAreaCapacity, double arrivalRatePerSecond, long serviceTimeMillis) {
+        this(numberOfPumps, waitingAreaCapacity, arrivalRatePerSecond, Workload.fixed(serviceTimeMillis), QueueDiscipline.FIFO, 0);
+    }
+
+    public SimulatedStation(int numberOfPumps, int waitingAreaCapacity, double arrivalRatePerSecond,
+                            Workload workload, QueueDiscipline discipline, long agingMillis) {
+        if (numberOfPumps < 1) {
+            throw new IllegalArgumentException("Number of pumps must be at least 1");
+        }
+        if (waitingAreaCapacity < 0) {
+            throw new IllegalArgumentException("Waiting area capacity cannot be negative");
+        }
+        if (arrivalRatePerSecond <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive");
+        }
+        this.numberOfPumps = numberOfPumps;
+        this.waitingAreaCapacity = waitingAreaCapacity;
+        this.arrivalRatePerSecond = arrivalRatePerSecond;
+        this.workload = workload;
+        this.discipline = discipline;
+        this.agingMillis = agingMillis;
+    }
+
+    // Runs numberOfCars Poisson arrivals through the station. The seed makes runs repeatable.
+    public Result run(int numberOfCars, long seed) {
+        try {
+            return run(numberOfCars, seed, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen without a recorder
+        }
+    }
+
+    // Same as run(numberOfCars, seed), and also appends every arrival to recorder if it is not null
+    public Result run(int numberOfCars, long seed, WorkloadTrace.Writer recorder) throws IOException {
+        return replay(WorkloadTrace.poisson(numberOfCars, arrivalRatePerSecond, workload, seed), recorder);
+    }
+
+    // Runs the given arrivals (for example a WorkloadTrace.Reader) through the station on the
+    // virtual clock, as fast as possible. Arrivals must come in time order.
+    public Result replay(Iterator<WorkloadTrace.Arrival> arrivals, WorkloadTrace.Writer recorder) throws IOException {
+        StationMetrics metrics = new StationMetrics();
+        long[] pumpFreeAt = new long[numberOfPumps]; // virtual time each pump becomes idle
+        PriorityQueue<Job> waitingArea = new PriorityQueue<>(
+                Comparator.comparingLong((Job job) -> job.rank).thenComparingLong(job -> job.sequence));
+
+        long now = 0;
+        long sequence = 0;
+        while (arrivals.hasNext()) {
+            WorkloadTrace.Arrival arrival = arrivals.next();
+            if (recorder != null) {
+                recorder.append(arrival);
+            }
+            now = arrival.arrivalNanos;
+            long demandMillis = arrival.serviceDemandMillis;
+
+            // Let pumps that became idle before this arrival pick up waiting cars
+            startWaitingCars(pumpFreeAt, waitingArea, metrics, now);
+
+            int pump = earliestFreePump(pumpFreeAt);
+            if (waitingArea.isEmpty() && pumpFreeAt[pump] <= now) {
+                metrics.recordAccepted();
+                metrics.recordServiced(0);
+                pumpFreeAt[pump] = now + demandMillis * 1_000_000L;
+            } else if (waitingArea.size() < waitingAreaCapacity) {
+                metrics.recordAccepted();
+                long rank = discipline.rank(now, demandMillis, arrival.serviceClass, agingMillis);
+                waitingArea.add(new Job(now, demandMillis, rank, sequence++));
+            } else {
+                metrics.recordRejected();
+            }
+        }
+
+        // No more arrivals: drain the waiting area
+        startWaitingCars(pumpFreeAt, waitingArea, metrics, Long.MAX_VALUE);
+
+        long end = now;
+        for (long freeAt : pumpFreeAt) {
+            end = Math.max(end, freeAt);
+        }
+        return new Result(metrics, end);
+    }
+
+    // Cars only queue while every pump is busy, so whenever a pump frees up all waiting cars
+    // have already arrived and the discipline can choose among them.
+    private void startWaitingCars(long[] pumpFreeAt, PriorityQueue<Job> waitingArea, StationMetrics metrics, long until) {
+        while (!waitingArea.isEmpty()) {
+            int pump = earliestFreePump(pumpFreeAt);
+            long start = pumpFreeAt[pump];
+            if (start > until) {
+                return;
+            }
+            Job job = waitingArea.poll();
+            metrics.recordServiced(start - job.arrivalNanos);
+            pumpFreeAt[pump] = start + job.demandMillis * 1_000_000L;
+        }
+    }
+
+    private static int earliestFreePump(long[] pumpFreeAt) {
+        int best = 0;
+        for (int i = 1; i < pumpFreeAt.length; i++) {
+            if (pumpFreeAt[i] < pumpFreeAt[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static class Job {
+        final long arrivalNanos;
+        final long demandMillis;
+        final long rank;
+        final long sequence;
+
+        Job(long arrivalNanos, long demandMillis, long rank, long sequence) {
+            this.arrivalNanos = arrivalNanos;
+            this.demandMillis = demandMillis;
+            this.rank = rank;
+            this.sequence = sequence;
+        }
+    }
+
+    public static class Result {
+        private final StationMetrics metrics;
+        private final long elapsedNanos;
+
+        Result(StationMetrics metrics, long elapsedNanos) {
+            this.metrics = metrics;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public StationMetrics getMetrics() {
+            return metrics;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
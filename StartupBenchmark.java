@@ -0,0 +1,97 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Measures cold-start latency of the programs as separate JVM processes in three setups:
+//   plain      - java -cp build/station.jar, no extra flags
+//   flags      - the JVM flags the launch scripts use (SerialGC, plus C1 only for the terminal)
+//   flags+cds  - the same flags with the AppCDS archive made by scripts/build-cds.sh, exactly as
+//                scripts/terminal.sh and scripts/station.sh start the programs
+// flags vs plain is what the flags buy; flags+cds vs flags is what the archive alone buys.
+// Each setup is timed for:
+//   terminal prompt - until LinuxTerminal prints its first "$ " prompt
+//   terminal pwd    - until "LinuxTerminal pwd" (single-command mode) exits
+//   station prompt  - until ServiceStation asks for the waiting area capacity
+// Usage: java StartupBenchmark [runs] [buildDir]
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        File buildDir = new File(args.length > 1 ? args[1] : "build");
+        String jar = new File(buildDir, "station.jar").getPath();
+        String java = new File(System.getProperty("java.home"), "bin/java").getPath();
+        if (!new File(jar).exists()) {
+            System.out.println("startup: " + jar + " not found, run scripts/build-cds.sh first");
+            return;
+        }
+
+        List<String> plain = Arrays.asList(java, "-cp", jar);
+        List<String> terminalFlags = Arrays.asList(java, "-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC", "-cp", jar);
+        List<String> terminalCds = Arrays.asList(java, "-XX:SharedArchiveFile=" + new File(buildDir, "terminal.jsa"),
+                "-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC", "-cp", jar);
+        List<String> stationFlags = Arrays.asList(java, "-XX:+UseSerialGC", "-cp", jar);
+        List<String> stationCds = Arrays.asList(java, "-XX:SharedArchiveFile=" + new File(buildDir, "station.jsa"),
+                "-XX:+UseSerialGC", "-cp", jar);
+
+        System.out.printf("median of %d runs, milliseconds%n", runs);
+        System.out.printf("%-18s %10s %10s %10s%n", "", "plain", "flags", "flags+cds");
+        report("terminal prompt", runs, "$ ", plain, terminalFlags, terminalCds, "LinuxTerminal");
+        report("terminal pwd", runs, null, plain, terminalFlags, terminalCds, "LinuxTerminal", "pwd");
+        report("station prompt", runs, "Capacity", plain, stationFlags, stationCds, "ServiceStation");
+    }
+
+    private static void report(String name, int runs, String untilOutput, List<String> plain, List<String> flags,
+                               List<String> cds, String... program) throws IOException, InterruptedException {
+        System.out.printf("%-18s %10.1f %10.1f %10.1f%n", name, median(runs, with(plain, program), untilOutput),
+                median(runs, with(flags, program), untilOutput), median(runs, with(cds, program), untilOutput));
+    }
+
+    private static double median(int runs, List<String> command, String untilOutput) throws IOException, InterruptedException {
+        double[] times = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            times[i] = timeOnce(command, untilOutput);
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+
+    // Time from launch until untilOutput appears on stdout, or until the process exits if it is null
+    private static double timeOnce(List<String> command, String untilOutput) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try {
+            if (untilOutput == null) {
+                process.getInputStream().transferTo(OutputStream.nullOutputStream());
+                process.waitFor();
+            } else if (!waitForOutput(process.getInputStream(), untilOutput)) {
+                throw new IOException("process exited before printing '" + untilOutput + "': " + command);
+            }
+            return (System.nanoTime() - start) / 1e6;
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static boolean waitForOutput(InputStream in, String expected) throws IOException {
+        StringBuilder seen = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            seen.append((char) c);
+            if (seen.indexOf(expected, Math.max(0, seen.length() - expected.length())) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> with(List<String> base, String... extra) {
+        List<String> command = new ArrayList<>(base);
+        command.addAll(Arrays.asList(extra));
+        return command;
+    }
+}
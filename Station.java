@@ -0,0 +1,187 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// A car wash that can be started, fed cars, shut down and started again in the same JVM.
+// Shutdown is a full drain, in this order:
+//   1. arrive() stops accepting cars
+//   2. cars that already arrived finish joining the queue (or leave, per the admission policy)
+//   3. the waiting area is closed; pumps keep washing until the queue is empty
+//   4. each pump finishes the cars in hand, sees the close signal and exits
+// awaitTermination() returns once every pump has exited, so no car is lost and the run can be
+// timed exactly.
+public class Station {
+    private final int numberOfPumps;
+    private final int numberOfBays;
+    private final int waitingAreaCapacity;
+    private final int batchSize;
+    private final QueueDiscipline discipline;
+    private final long agingMillis;
+    private final String admission;
+
+    private final ArrivalRouter router = new ArrivalRouter(ArrivalRouter.Strategy.ROUND_ROBIN);
+    private WaitingArea[] waitingArea;
+    private final List<Pump> pumps = new ArrayList<>();
+    private final List<Car> cars = new ArrayList<>(); // arrived cars that may still be joining the queue
+    private Thread closer;
+    private volatile boolean drainInterrupted; // the closer was interrupted before the pumps stopped
+    private volatile boolean accepting; // written after waitingArea, so readers that see true see the area
+    private long startNanos;
+    private volatile long endNanos;
+
+    public Station(int numberOfPumps, int waitingAreaCapacity) {
+        this(numberOfPumps, waitingAreaCapacity, 1, QueueDiscipline.FIFO, 0, "block");
+    }
+
+    // admission is an AdmissionPolicy spec; each run gets a fresh policy parsed from it
+    public Station(int numberOfPumps, int waitingAreaCapacity, int batchSize, QueueDiscipline discipline,
+                   long agingMillis, String admission) {
+        this(numberOfPumps, numberOfPumps, waitingAreaCapacity, batchSize, discipline, agingMillis, admission);
+    }
+
+    // numberOfBays caps how many pumps wash at once; with fewer bays than pumps, pumps wait for a bay
+    public Station(int numberOfPumps, int numberOfBays, int waitingAreaCapacity, int batchSize,
+                   QueueDiscipline discipline, long agingMillis, String admission) {
+        if (numberOfPumps < 1) {
+            throw new IllegalArgumentException("Number of pumps must be at least 1");
+        }
+        if (numberOfBays < 1) {
+            throw new IllegalArgumentException("Number of service bays must be at least 1");
+        }
+        if (waitingAreaCapacity < 0) {
+            throw new IllegalArgumentException("Waiting area capacity cannot be negative");
+        }
+        this.numberOfPumps = numberOfPumps;
+        this.numberOfBays = numberOfBays;
+        this.waitingAreaCapacity = waitingAreaCapacity;
+        this.batchSize = batchSize;
+        this.discipline = discipline;
+        this.agingMillis = agingMillis;
+        this.admission = admission;
+        AdmissionPolicy.parse(admission); // fail now rather than on start()
+    }
+
+    // Opens the station with an empty waiting area, fresh metrics and new pump threads.
+    // If the previous drain was interrupted, what is left of that run is stopped first.
+    public synchronized void start() {
+        if (accepting || (closer != null && closer.isAlive())) {
+            throw new IllegalStateException("Station is already running");
+        }
+        if (drainInterrupted) {
+            abandonRun();
+        }
+        waitingArea = new WaitingArea[]{new WaitingArea(0, discipline.newQueue(agingMillis), new Semaphore(1),
+                new Semaphore(waitingAreaCapacity), new Semaphore(0), AdmissionPolicy.parse(admission))};
+        Semaphore serviceBays = new Semaphore(numberOfBays);
+        pumps.clear();
+        cars.clear();
+        closer = null;
+        drainInterrupted = false;
+        endNanos = 0;
+        for (int i = 0; i < numberOfPumps; i++) {
+            Pump pump = new Pump(i + 1, waitingArea[0], new WaitingArea[0], serviceBays, batchSize);
+            pumps.add(pump);
+            pump.start();
+        }
+        startNanos = System.nanoTime();
+        accepting = true;
+    }
+
+    // Starts a car thread for an arriving car. Returns false once shutdown() has been called.
+    public synchronized boolean arrive(String carName, int serviceClass, long serviceDemandMillis) {
+        if (!accepting) {
+            return false;
+        }
+        Car car = new Car(carName, waitingArea, router, serviceClass, serviceDemandMillis);
+        car.start();
+        // Finished cars are dropped so a long run does not keep every car alive
+        cars.add(car);
+        if (cars.size() >= 1024) {
+            cars.removeIf(c -> !c.isAlive());
+        }
+        return true;
+    }
+
+    // Like arrive(), but the calling thread admits and enqueues the car itself instead of starting
+    // a car thread, so a load generator with a fixed set of producer threads measures the queue and
+    // not thread creation. Not synchronized; every such call must return before shutdown() is called.
+    public boolean arriveOnCallerThread(String carName, int serviceClass, long serviceDemandMillis) {
+        if (!accepting) {
+            return false;
+        }
+        new Car(carName, waitingArea, router, serviceClass, serviceDemandMillis).joinQueue();
+        return true;
+    }
+
+    // Stops arrivals and starts draining in the background; returns immediately
+    public synchronized void shutdown() {
+        if (!accepting) {
+            return;
+        }
+        accepting = false;
+        List<Car> arrived = new ArrayList<>(cars);
+        WaitingArea area = waitingArea[0];
+        closer = new Thread(() -> {
+            try {
+                for (Car car : arrived) {
+                    car.join();
+                }
+                area.close();
+                for (Pump pump : pumps) {
+                    pump.join();
+                }
+                endNanos = System.nanoTime();
+            } catch (InterruptedException e) {
+                // endNanos stays 0, so the run never counts as terminated; start() cleans up
+                drainInterrupted = true;
+                Thread.currentThread().interrupt();
+            }
+        }, "Station-closer");
+        closer.start();
+    }
+
+    // Waits for the drain to finish. Returns false if the timeout passed first or the drain was
+    // interrupted.
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        Thread drain;
+        synchronized (this) {
+            drain = closer;
+        }
+        if (drain == null) {
+            throw new IllegalStateException("shutdown() has not been called");
+        }
+        drain.join(Math.max(1, unit.toMillis(timeout)));
+        return !drain.isAlive() && !drainInterrupted;
+    }
+
+    public boolean isDrainInterrupted() {
+        return drainInterrupted;
+    }
+
+    public synchronized boolean isTerminated() {
+        return closer != null && !closer.isAlive() && endNanos != 0;
+    }
+
+    // The last drain did not finish: stop any car still waiting for a spot and close that run's area.
+    // Its pumps are interrupted, so they skip the service time of whatever is left in the old queue
+    // and exit on the close signal instead of holding up the next run.
+    private void abandonRun() {
+        for (Car car : cars) {
+            car.interrupt();
+        }
+        waitingArea[0].close();
+        for (Pump pump : pumps) {
+            pump.interrupt();
+        }
+    }
+
+    // Metrics of the current (or last) run
+    public synchronized StationMetrics getMetrics() {
+        return waitingArea[0].getMetrics();
+    }
+
+    // Time from start() until the last pump exited; only meaningful once terminated
+    public synchronized long getElapsedNanos() {
+        return endNanos - startNanos;
+    }
+}
@@ -0,0 +1,156 @@
+// Counters and a wait-time histogram for one station (or one shard of a station).
+// All methods are synchronized so cars and pumps on different threads can record into it.
+// Waits go into log-scaled buckets (128 per power of two, under 1% error), so memory stays
+// fixed however many cars a run or a replayed trace contains.
+public class StationMetrics {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = bucketIndex(Long.MAX_VALUE) + 1;
+
+    private long accepted;
+    private long rejected;
+    private long abandoned;
+    private long serviced;
+    private long stolen;
+    private final long[] waitBuckets = new long[BUCKETS];
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    public synchronized void recordAccepted() {
+        accepted++;
+    }
+
+    public synchronized void recordRejected() {
+        rejected++;
+    }
+
+    // A car that was willing to wait but gave up before reaching the waiting area
+    public synchronized void recordAbandoned() {
+        abandoned++;
+    }
+
+    public synchronized void recordServiced(long waitedNanos) {
+        waitedNanos = Math.max(0, waitedNanos);
+        serviced++;
+        waitBuckets[bucketIndex(waitedNanos)]++;
+        totalWaitNanos += waitedNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitedNanos);
+    }
+
+    // Cars from this area's queue that a pump of another shard took and washed
+    public synchronized void recordStolen(int count) {
+        stolen += count;
+    }
+
+    public synchronized long getAccepted() {
+        return accepted;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    public synchronized long getAbandoned() {
+        return abandoned;
+    }
+
+    public synchronized long getServiced() {
+        return serviced;
+    }
+
+    public synchronized long getStolen() {
+        return stolen;
+    }
+
+    // Sum of all recorded waits; the difference between two readings gives the recent mean wait
+    public synchronized long getTotalWaitNanos() {
+        return totalWaitNanos;
+    }
+
+    // Fraction of arriving cars that were turned away or gave up waiting
+    public synchronized double dropRate() {
+        long arrivals = accepted + rejected + abandoned;
+        return arrivals == 0 ? 0.0 : (double) (rejected + abandoned) / arrivals;
+    }
+
+    // Serviced cars per second over the given run length
+    public synchronized double throughput(long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0.0 : serviced / (elapsedNanos / 1e9);
+    }
+
+    // Exact: the running total is kept alongside the histogram
+    public synchronized double meanWaitMillis() {
+        return serviced == 0 ? 0.0 : (double) totalWaitNanos / serviced / 1e6;
+    }
+
+    // Nearest-rank percentile of the recorded waits, e.g. percentileWaitMillis(99),
+    // reported as the middle of the bucket that holds that rank
+    public synchronized double percentileWaitMillis(double percentile) {
+        if (serviced == 0) {
+            return 0.0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * serviced);
+        rank = Math.max(1, Math.min(serviced, rank));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += waitBuckets[i];
+            if (seen >= rank) {
+                return Math.min(bucketMiddle(i), maxWaitNanos) / 1e6;
+            }
+        }
+        return maxWaitNanos / 1e6;
+    }
+
+    // Adds another metrics object's counts and waits to this one (used for station-wide totals)
+    public void merge(StationMetrics other) {
+        long otherAccepted;
+        long otherRejected;
+        long otherAbandoned;
+        long otherServiced;
+        long otherStolen;
+        long otherTotalWait;
+        long otherMaxWait;
+        long[] otherBuckets;
+        synchronized (other) {
+            otherAccepted = other.accepted;
+            otherRejected = other.rejected;
+            otherAbandoned = other.abandoned;
+            otherServiced = other.serviced;
+            otherStolen = other.stolen;
+            otherTotalWait = other.totalWaitNanos;
+            otherMaxWait = other.maxWaitNanos;
+            otherBuckets = other.waitBuckets.clone();
+        }
+        synchronized (this) {
+            accepted += otherAccepted;
+            rejected += otherRejected;
+            abandoned += otherAbandoned;
+            serviced += otherServiced;
+            stolen += otherStolen;
+            totalWaitNanos += otherTotalWait;
+            maxWaitNanos = Math.max(maxWaitNanos, otherMaxWait);
+            for (int i = 0; i < BUCKETS; i++) {
+                waitBuckets[i] += otherBuckets[i];
+            }
+        }
+    }
+
+    // Values below 2 * SUB_BUCKETS get their own bucket. Above that, each power of two is split
+    // into SUB_BUCKETS equal buckets, keyed by the top SUB_BUCKET_BITS + 1 bits of the value.
+    private static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    private static long bucketMiddle(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long top = index - shift * SUB_BUCKETS;
+        return (top << shift) + (1L << (shift - 1));
+    }
+}
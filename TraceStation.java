@@ -0,0 +1,195 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Records a run's arrivals to a WorkloadTrace and replays traces later.
+//
+// Record: java ServiceStation --trace record FILE [mode=sim|real] [pumps=3] [capacity=5] [cars=1000] [rate=2]
+//                                                 [service=exp:1000] [policy=fifo] [aging=5000]
+//                                                 [admission=balk] [seed=42] [quiet=false]
+// Replay: java ServiceStation --trace replay FILE [speed=max|real] [quiet=false]
+//
+// mode=sim records a SimulatedStation run; mode=real runs car and pump threads in real time.
+// speed=max replays on the virtual clock of SimulatedStation, which always balks when full, so it
+// is only accepted for traces recorded with admission=balk; speed=real replays with car and pump
+// threads, starting each car at its recorded time, and works for any admission policy. Without
+// speed=, balk traces replay at max and the others at real. After a
+// replay the metrics are compared with the ones stored in the trace. A sim recording replayed at
+// speed=max must match exactly; real-time runs are compared with a tolerance for timing noise.
+public class TraceStation {
+    private static final double COUNT_TOLERANCE = 0.01;    // relative
+    private static final double WAIT_TOLERANCE = 0.05;     // relative
+    private static final double WAIT_SLACK_MILLIS = 20;    // absolute, for waits close to zero
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        if (args.length < 2 || !("record".equals(args[0]) || "replay".equals(args[0]))) {
+            System.out.println("trace: usage: --trace record|replay FILE [key=value ...]");
+            return;
+        }
+        String fileName = args[1];
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 2; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            if (eq < 0) {
+                System.out.println("trace: expected key=value but got '" + args[i] + "'");
+                return;
+            }
+            options.put(args[i].substring(0, eq), args[i].substring(eq + 1));
+        }
+
+        if ("record".equals(args[0])) {
+            record(fileName, options);
+        } else {
+            replay(fileName, options);
+        }
+    }
+
+    private static void record(String fileName, Map<String, String> options) throws InterruptedException, IOException {
+        String mode = options.getOrDefault("mode", "sim");
+        int numberOfCars = Integer.parseInt(options.getOrDefault("cars", "1000"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "2"));
+        Workload workload = Workload.parse(options.getOrDefault("service", "exp:1000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        boolean quiet = Boolean.parseBoolean(options.getOrDefault("quiet", "false"));
+
+        Map<String, String> station = new LinkedHashMap<>();
+        station.put("mode", mode);
+        station.put("pumps", options.getOrDefault("pumps", "3"));
+        station.put("capacity", options.getOrDefault("capacity", "5"));
+        // The simulated station can only balk, so a sim recording always says so
+        station.put("admission", "sim".equals(mode) ? "balk" : options.getOrDefault("admission", "balk"));
+        station.put("policy", options.getOrDefault("policy", "fifo"));
+        station.put("aging", options.getOrDefault("aging", "5000"));
+
+        StationMetrics metrics;
+        try (WorkloadTrace.Writer recorder = new WorkloadTrace.Writer(fileName, station)) {
+            if ("sim".equals(mode)) {
+                metrics = simulatedStation(station, rate, workload).run(numberOfCars, seed, recorder).getMetrics();
+            } else if ("real".equals(mode)) {
+                metrics = runThreads(station, WorkloadTrace.poisson(numberOfCars, rate, workload, seed), recorder, quiet);
+            } else {
+                System.out.println("trace: unknown mode '" + mode + "'");
+                return;
+            }
+            recorder.writeMetrics(metrics);
+        }
+        System.out.println("Recorded " + numberOfCars + " arrivals to " + fileName);
+        System.out.println("# metrics " + WorkloadTrace.formatPairs(WorkloadTrace.summarize(metrics)));
+    }
+
+    private static void replay(String fileName, Map<String, String> options) throws InterruptedException, IOException {
+        String speed = options.get("speed");
+        boolean quiet = Boolean.parseBoolean(options.getOrDefault("quiet", "false"));
+
+        StationMetrics metrics;
+        Map<String, String> station;
+        Map<String, String> recorded;
+        try (WorkloadTrace.Reader reader = new WorkloadTrace.Reader(fileName)) {
+            station = reader.getStation();
+            boolean balk = "balk".equals(station.get("admission"));
+            if (speed == null) {
+                speed = balk ? "max" : "real";
+            }
+            if ("max".equals(speed) && !balk) {
+                System.out.println("trace: speed=max can only replay balk traces, but this one was recorded with"
+                        + " admission=" + station.get("admission") + "; use speed=real");
+                return;
+            }
+            if ("max".equals(speed)) {
+                // Rate is not used when the arrivals come from the trace
+                metrics = simulatedStation(station, 1, Workload.fixed(0)).replay(reader, null).getMetrics();
+            } else if ("real".equals(speed)) {
+                metrics = runThreads(station, reader, null, quiet);
+            } else {
+                System.out.println("trace: unknown speed '" + speed + "'");
+                return;
+            }
+            recorded = reader.getRecordedMetrics();
+        } catch (UncheckedIOException e) {
+            System.out.println("trace: " + e.getCause().getMessage());
+            return;
+        }
+
+        Map<String, String> replayed = WorkloadTrace.summarize(metrics);
+        if (recorded == null) {
+            System.out.println("# metrics " + WorkloadTrace.formatPairs(replayed));
+            System.out.println("Trace has no recorded metrics to compare with");
+            return;
+        }
+
+        boolean exact = "sim".equals(station.get("mode")) && "max".equals(speed);
+        boolean matches = true;
+        System.out.printf("%-14s %14s %14s%n", "metric", "recorded", "replayed");
+        for (Map.Entry<String, String> entry : replayed.entrySet()) {
+            String key = entry.getKey();
+            String before = recorded.getOrDefault(key, "?");
+            String after = entry.getValue();
+            boolean same = exact ? before.equals(after) : withinTolerance(key, before, after);
+            matches &= same;
+            System.out.printf("%-14s %14s %14s%s%n", key, before, after, same ? "" : "  <-- differs");
+        }
+        System.out.println(matches
+                ? "Replay matches the recorded run" + (exact ? " exactly" : " within tolerance")
+                : "Replay does NOT match the recorded run");
+    }
+
+    private static boolean withinTolerance(String key, String before, String after) {
+        double a;
+        double b;
+        try {
+            a = Double.parseDouble(before);
+            b = Double.parseDouble(after);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (key.endsWith("_ms")) {
+            return Math.abs(a - b) <= Math.max(WAIT_SLACK_MILLIS, WAIT_TOLERANCE * Math.abs(a));
+        }
+        return Math.abs(a - b) <= Math.max(1, COUNT_TOLERANCE * Math.abs(a));
+    }
+
+    private static SimulatedStation simulatedStation(Map<String, String> station, double rate, Workload workload) {
+        return new SimulatedStation(Integer.parseInt(station.get("pumps")), Integer.parseInt(station.get("capacity")),
+                rate, workload, QueueDiscipline.parse(station.get("policy")), Long.parseLong(station.get("aging")));
+    }
+
+    // Runs the arrivals through real car and pump threads, starting each car at its arrival time
+    private static StationMetrics runThreads(Map<String, String> station, Iterator<WorkloadTrace.Arrival> arrivals,
+                                             WorkloadTrace.Writer recorder, boolean quiet)
+            throws InterruptedException, IOException {
+        Station threads = new Station(Integer.parseInt(station.get("pumps")), Integer.parseInt(station.get("capacity")), 1,
+                QueueDiscipline.parse(station.get("policy")), Long.parseLong(station.get("aging")), station.get("admission"));
+
+        PrintStream originalOut = System.out;
+        if (quiet) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        try {
+            threads.start();
+            long start = System.nanoTime();
+            while (arrivals.hasNext()) {
+                WorkloadTrace.Arrival arrival = arrivals.next();
+                long delayNanos = start + arrival.arrivalNanos - System.nanoTime();
+                if (delayNanos > 0) {
+                    Thread.sleep(delayNanos / 1_000_000L, (int) (delayNanos % 1_000_000L));
+                }
+                if (recorder != null) {
+                    recorder.append(arrival);
+                }
+                threads.arrive("C" + arrival.carId, arrival.serviceClass, arrival.serviceDemandMillis);
+            }
+
+            // Drain so every accepted car is washed before the metrics are read
+            threads.shutdown();
+            threads.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            return threads.getMetrics();
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+}
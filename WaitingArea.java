@@ -0,0 +1,75 @@
+import java.util.Queue;
+
+// One waiting queue together with the semaphores that guard it and the metrics of the cars
+// that queued in it. A plain station has a single WaitingArea; a sharded station has one per
+// shard, each with its own mutex so pumps on different shards never contend for the same lock.
+public class WaitingArea {
+    private final int areaId;
+    private final Queue<Car> waitingQueue;
+    private final Semaphore mutex;
+    private final Semaphore empty;
+    private final Semaphore full;
+    private final AdmissionPolicy admission;
+    private final StationMetrics metrics = new StationMetrics();
+    private volatile boolean closed;
+
+    public WaitingArea(int areaId, Queue<Car> waitingQueue, Semaphore mutex, Semaphore empty, Semaphore full) {
+        this(areaId, waitingQueue, mutex, empty, full, AdmissionPolicy.block());
+    }
+
+    public WaitingArea(int areaId, Queue<Car> waitingQueue, Semaphore mutex, Semaphore empty, Semaphore full,
+                       AdmissionPolicy admission) {
+        this.areaId = areaId;
+        this.waitingQueue = waitingQueue;
+        this.mutex = mutex;
+        this.empty = empty;
+        this.full = full;
+        this.admission = admission;
+    }
+
+    public int getAreaId() {
+        return areaId;
+    }
+
+    public Queue<Car> getWaitingQueue() {
+        return waitingQueue;
+    }
+
+    public Semaphore getMutex() {
+        return mutex;
+    }
+
+    public Semaphore getEmpty() {
+        return empty;
+    }
+
+    public Semaphore getFull() {
+        return full;
+    }
+
+    public AdmissionPolicy getAdmission() {
+        return admission;
+    }
+
+    public StationMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Tells the pumps that no more cars will arrive. Call only once every car has joined the queue
+    // or left. The extra full permit has no car behind it, so the pump that takes it finds the
+    // queue empty, knows the area is closed and passes the permit on to the next pump.
+    public void close() {
+        closed = true;
+        full.release();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // Number of cars waiting and not yet claimed by a pump. Read without the mutex, so it is
+    // only an estimate, which is all the arrival router needs.
+    public int depth() {
+        return full.availablePermits();
+    }
+}
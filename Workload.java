@@ -0,0 +1,85 @@
+import java.util.SplittableRandom;
+
+// The mix of service classes arriving at the station. Each class has a share of the arrivals
+// and its own service time distribution. Class 0 is the most urgent under priority scheduling.
+public class Workload {
+    private final double[] cumulativeShare;
+    private final ServiceTimeDistribution[] distributions;
+    private final String spec;
+
+    private Workload(double[] shares, ServiceTimeDistribution[] distributions, String spec) {
+        double total = 0;
+        for (double share : shares) {
+            if (share <= 0) {
+                throw new IllegalArgumentException("Class shares must be positive");
+            }
+            total += share;
+        }
+        this.cumulativeShare = new double[shares.length];
+        double running = 0;
+        for (int i = 0; i < shares.length; i++) {
+            running += shares[i] / total;
+            cumulativeShare[i] = running;
+        }
+        this.distributions = distributions;
+        this.spec = spec;
+    }
+
+    private Workload(Workload original) {
+        this.cumulativeShare = original.cumulativeShare;
+        this.distributions = new ServiceTimeDistribution[original.distributions.length];
+        for (int i = 0; i < distributions.length; i++) {
+            distributions[i] = original.distributions[i].copy();
+        }
+        this.spec = original.spec;
+    }
+
+    // A single class with a fixed service time, the behaviour of the original station
+    public static Workload fixed(long serviceTimeMillis) {
+        return new Workload(new double[]{1}, new ServiceTimeDistribution[]{ServiceTimeDistribution.fixed(serviceTimeMillis)},
+                "fixed:" + serviceTimeMillis);
+    }
+
+    // Parses "SHARE@DIST;SHARE@DIST;..." where class i is the i-th entry, e.g.
+    // "0.2@exp:300;0.8@lognormal:1500:0.8". A single distribution without a share is one class.
+    public static Workload parse(String spec) {
+        String[] entries = spec.split(";");
+        double[] shares = new double[entries.length];
+        ServiceTimeDistribution[] distributions = new ServiceTimeDistribution[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            int at = entries[i].indexOf('@');
+            shares[i] = at < 0 ? 1 : Double.parseDouble(entries[i].substring(0, at));
+            distributions[i] = ServiceTimeDistribution.parse(entries[i].substring(at + 1));
+        }
+        return new Workload(shares, distributions, spec);
+    }
+
+    // The same mix with its own sampling state (trace cursors). Runs that may execute
+    // concurrently, such as sweep combinations, each sample from their own copy.
+    public Workload copy() {
+        return new Workload(this);
+    }
+
+    public int classCount() {
+        return distributions.length;
+    }
+
+    public int sampleClass(SplittableRandom random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < cumulativeShare.length - 1; i++) {
+            if (u < cumulativeShare[i]) {
+                return i;
+            }
+        }
+        return cumulativeShare.length - 1;
+    }
+
+    public long sampleDemandMillis(int serviceClass, SplittableRandom random) {
+        return distributions[serviceClass].sampleMillis(random);
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
@@ -0,0 +1,239 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+// Streaming text format for recorded arrivals, one car per line:
+//
+//   # carwash-trace v1
+//   # station pumps=3 capacity=5 admission=balk policy=fifo aging=5000
+//   arrival_ns,car,class,demand_ms
+//   1532001,1,0,812
+//   ...
+//   # metrics accepted=... rejected=... abandoned=... serviced=... mean_wait_ms=... p99_wait_ms=...
+//
+// arrival_ns is the time since the start of the run. The writer and the reader both work one line
+// at a time, so traces of any length can be recorded and replayed without holding them in memory.
+public class WorkloadTrace {
+    public static final String MAGIC = "# carwash-trace v1";
+    private static final String COLUMNS = "arrival_ns,car,class,demand_ms";
+
+    public static class Arrival {
+        public final long arrivalNanos;
+        public final int carId;
+        public final int serviceClass;
+        public final long serviceDemandMillis;
+
+        public Arrival(long arrivalNanos, int carId, int serviceClass, long serviceDemandMillis) {
+            this.arrivalNanos = arrivalNanos;
+            this.carId = carId;
+            this.serviceClass = serviceClass;
+            this.serviceDemandMillis = serviceDemandMillis;
+        }
+    }
+
+    public static class Writer implements Closeable {
+        private final BufferedWriter out;
+
+        // station holds the settings needed to replay the run, e.g. pumps, capacity, admission
+        public Writer(String fileName, Map<String, String> station) throws IOException {
+            out = new BufferedWriter(new FileWriter(fileName), 1 << 16);
+            out.write(MAGIC);
+            out.newLine();
+            out.write("# station " + formatPairs(station));
+            out.newLine();
+            out.write(COLUMNS);
+            out.newLine();
+        }
+
+        public void append(Arrival arrival) throws IOException {
+            out.write(Long.toString(arrival.arrivalNanos));
+            out.write(',');
+            out.write(Integer.toString(arrival.carId));
+            out.write(',');
+            out.write(Integer.toString(arrival.serviceClass));
+            out.write(',');
+            out.write(Long.toString(arrival.serviceDemandMillis));
+            out.newLine();
+        }
+
+        // Written once at the end so a replay can be checked against the recorded run
+        public void writeMetrics(StationMetrics metrics) throws IOException {
+            out.write("# metrics " + formatPairs(summarize(metrics)));
+            out.newLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    public static class Reader implements Iterator<Arrival>, Closeable {
+        private final BufferedReader in;
+        private final Map<String, String> station;
+        private Map<String, String> recordedMetrics;
+        private Arrival next;
+        private long lastArrivalNanos;
+        private int lineNumber;
+
+        public Reader(String fileName) throws IOException {
+            in = new BufferedReader(new FileReader(fileName), 1 << 16);
+            if (!MAGIC.equals(readLine())) {
+                in.close();
+                throw new IOException(fileName + " is not a car wash trace");
+            }
+            String stationLine = readLine();
+            if (stationLine == null || !stationLine.startsWith("# station ")) {
+                in.close();
+                throw new IOException(fileName + ": missing station line");
+            }
+            station = parsePairs(stationLine.substring("# station ".length()));
+            readLine(); // column names
+            advance();
+        }
+
+        public Map<String, String> getStation() {
+            return station;
+        }
+
+        // Only known once the whole trace has been read; null if the trace has no metrics line
+        public Map<String, String> getRecordedMetrics() {
+            return recordedMetrics;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Arrival next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Arrival current = next;
+            advance();
+            return current;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private void advance() {
+            next = null;
+            try {
+                String line;
+                while ((line = readLine()) != null) {
+                    if (line.startsWith("# metrics ")) {
+                        recordedMetrics = parsePairs(line.substring("# metrics ".length()));
+                    } else if (!line.isEmpty() && !line.startsWith("#")) {
+                        next = parseArrival(line);
+                        // SimulatedStation.replay and the threaded replay both rely on time order
+                        if (next.arrivalNanos < lastArrivalNanos) {
+                            throw new IOException("trace line " + lineNumber + ": arrival_ns " + next.arrivalNanos
+                                    + " is before the previous arrival at " + lastArrivalNanos);
+                        }
+                        lastArrivalNanos = next.arrivalNanos;
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private Arrival parseArrival(String line) throws IOException {
+            String[] fields = line.split(",");
+            if (fields.length != 4) {
+                throw new IOException("trace line " + lineNumber + ": expected 4 fields but got " + fields.length);
+            }
+            try {
+                return new Arrival(Long.parseLong(fields[0]), Integer.parseInt(fields[1]),
+                        Integer.parseInt(fields[2]), Long.parseLong(fields[3]));
+            } catch (NumberFormatException e) {
+                throw new IOException("trace line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+
+        private String readLine() throws IOException {
+            String line = in.readLine();
+            if (line != null) {
+                lineNumber++;
+            }
+            return line;
+        }
+    }
+
+    // numberOfCars Poisson arrivals at ratePerSecond, each with a class and service demand drawn
+    // from workload. The same seed always gives the same arrivals.
+    public static Iterator<Arrival> poisson(int numberOfCars, double ratePerSecond, Workload workload, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double meanGapNanos = 1e9 / ratePerSecond;
+        Workload sampler = workload.copy(); // a trace distribution restarts for every run
+        return new Iterator<Arrival>() {
+            private int generated;
+            private long now;
+
+            @Override
+            public boolean hasNext() {
+                return generated < numberOfCars;
+            }
+
+            @Override
+            public Arrival next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                now += (long) (-Math.log(1.0 - random.nextDouble()) * meanGapNanos);
+                int serviceClass = sampler.sampleClass(random);
+                return new Arrival(now, ++generated, serviceClass, sampler.sampleDemandMillis(serviceClass, random));
+            }
+        };
+    }
+
+    // The numbers a replay is compared on
+    public static Map<String, String> summarize(StationMetrics metrics) {
+        Map<String, String> summary = new LinkedHashMap<>();
+        summary.put("accepted", Long.toString(metrics.getAccepted()));
+        summary.put("rejected", Long.toString(metrics.getRejected()));
+        summary.put("abandoned", Long.toString(metrics.getAbandoned()));
+        summary.put("serviced", Long.toString(metrics.getServiced()));
+        summary.put("mean_wait_ms", String.format(Locale.ROOT, "%.3f", metrics.meanWaitMillis()));
+        summary.put("p99_wait_ms", String.format(Locale.ROOT, "%.3f", metrics.percentileWaitMillis(99)));
+        return summary;
+    }
+
+    static String formatPairs(Map<String, String> pairs) {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, String> pair : pairs.entrySet()) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(pair.getKey()).append('=').append(pair.getValue());
+        }
+        return text.toString();
+    }
+
+    static Map<String, String> parsePairs(String text) {
+        Map<String, String> pairs = new LinkedHashMap<>();
+        for (String pair : text.trim().split("\\s+")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                pairs.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return pairs;
+    }
+}
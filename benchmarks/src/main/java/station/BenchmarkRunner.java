@@ -0,0 +1,52 @@
+package station;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+// Runs the whole suite and writes one JSON result file per run into results/<timestamp>/,
+// so results from different commits can be compared (for example with jmh.morethan.io).
+// The handoff benchmark is repeated with 1, 2, 4, ... 64 producers and as many consumers.
+//
+// Usage: java -cp target/benchmarks.jar station.BenchmarkRunner [resultsDir]
+public class BenchmarkRunner {
+    private static final int[] HANDOFF_THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    public static void main(String[] args) throws RunnerException {
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File resultsDir = new File(args.length > 0 ? args[0] : "results", timestamp);
+        if (!resultsDir.mkdirs()) {
+            System.out.println("benchmarks: cannot create " + resultsDir);
+            return;
+        }
+
+        run(new OptionsBuilder()
+                .include(SemaphoreBenchmark.class.getName())
+                .include(StationBenchmark.class.getName()),
+                new File(resultsDir, "semaphore-and-station.json"));
+
+        for (int threads : HANDOFF_THREADS) {
+            run(new OptionsBuilder()
+                    .include(HandoffBenchmark.class.getName())
+                    .threadGroups(threads, threads),
+                    new File(resultsDir, "handoff-" + threads + "x" + threads + ".json"));
+        }
+
+        System.out.println("Results written to " + resultsDir);
+    }
+
+    private static void run(ChainedOptionsBuilder builder, File resultFile) throws RunnerException {
+        Options options = builder
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.getPath())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,208 @@
+package station;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// The Car -> Pump handoff: producers take an empty permit, enqueue under the mutex and release
+// full; consumers do the reverse. Three versions are measured:
+//   station - LinkedList with the station Semaphore, exactly as Car and Pump do it
+//   jdkSemaphores - the same protocol with java.util.concurrent.Semaphore
+//   arrayBlockingQueue - the java.util.concurrent equivalent of the whole waiting area
+// Each group defaults to one producer and one consumer; BenchmarkRunner repeats the run with
+// -tg N,N for N from 1 to 64. Acquires time out so a blocked side cannot hang the iteration end:
+// once one side stops being called, a plain acquire() on the other would wait forever. With a
+// permit free, the station Semaphore's tryAcquire(ms) takes the same monitor path as acquire(),
+// plus one nanoTime() call; only the waiting uses wait(ms) instead of wait().
+// A call that times out still counts as an operation in the primary score, so compare the
+// "handoffs" counter (items taken by a consumer) and check that "timeouts" stays near zero.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandoffBenchmark {
+    private static final long TIMEOUT_MILLIS = 10;
+    private static final Integer ITEM = 1;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long handoffs; // items a consumer took off the queue
+        public long timeouts; // calls on either side that gave up without passing an item
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            handoffs = 0;
+            timeouts = 0;
+        }
+    }
+
+    @State(Scope.Group)
+    public static class StationHandoff {
+        @Param({"10"})
+        int capacity;
+
+        Queue<Integer> queue;
+        Semaphore mutex;
+        Semaphore empty;
+        Semaphore full;
+
+        @Setup
+        public void setup() {
+            queue = new LinkedList<>();
+            mutex = new Semaphore(1);
+            empty = new Semaphore(capacity);
+            full = new Semaphore(0);
+        }
+    }
+
+    @State(Scope.Group)
+    public static class JdkSemaphoreHandoff {
+        @Param({"10"})
+        int capacity;
+
+        Queue<Integer> queue;
+        java.util.concurrent.Semaphore mutex;
+        java.util.concurrent.Semaphore empty;
+        java.util.concurrent.Semaphore full;
+
+        @Setup
+        public void setup() {
+            queue = new LinkedList<>();
+            mutex = new java.util.concurrent.Semaphore(1);
+            empty = new java.util.concurrent.Semaphore(capacity);
+            full = new java.util.concurrent.Semaphore(0);
+        }
+    }
+
+    @State(Scope.Group)
+    public static class BlockingQueueHandoff {
+        @Param({"10"})
+        int capacity;
+
+        ArrayBlockingQueue<Integer> queue;
+
+        @Setup
+        public void setup() {
+            queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    @Benchmark
+    @Group("station")
+    @GroupThreads(1)
+    public boolean stationProduce(StationHandoff h, Counters counters) throws InterruptedException {
+        if (!h.empty.tryAcquire(TIMEOUT_MILLIS)) {
+            counters.timeouts++;
+            return false;
+        }
+        h.mutex.acquire();
+        try {
+            h.queue.add(ITEM);
+        } finally {
+            h.mutex.release();
+        }
+        h.full.release();
+        return true;
+    }
+
+    @Benchmark
+    @Group("station")
+    @GroupThreads(1)
+    public Integer stationConsume(StationHandoff h, Counters counters) throws InterruptedException {
+        if (!h.full.tryAcquire(TIMEOUT_MILLIS)) {
+            counters.timeouts++;
+            return null;
+        }
+        Integer item;
+        h.mutex.acquire();
+        try {
+            item = h.queue.poll();
+        } finally {
+            h.mutex.release();
+        }
+        h.empty.release();
+        counters.handoffs++;
+        return item;
+    }
+
+    @Benchmark
+    @Group("jdkSemaphores")
+    @GroupThreads(1)
+    public boolean jdkProduce(JdkSemaphoreHandoff h, Counters counters) throws InterruptedException {
+        if (!h.empty.tryAcquire(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            counters.timeouts++;
+            return false;
+        }
+        h.mutex.acquire();
+        try {
+            h.queue.add(ITEM);
+        } finally {
+            h.mutex.release();
+        }
+        h.full.release();
+        return true;
+    }
+
+    @Benchmark
+    @Group("jdkSemaphores")
+    @GroupThreads(1)
+    public Integer jdkConsume(JdkSemaphoreHandoff h, Counters counters) throws InterruptedException {
+        if (!h.full.tryAcquire(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            counters.timeouts++;
+            return null;
+        }
+        Integer item;
+        h.mutex.acquire();
+        try {
+            item = h.queue.poll();
+        } finally {
+            h.mutex.release();
+        }
+        h.empty.release();
+        counters.handoffs++;
+        return item;
+    }
+
+    @Benchmark
+    @Group("arrayBlockingQueue")
+    @GroupThreads(1)
+    public boolean queueProduce(BlockingQueueHandoff h, Counters counters) throws InterruptedException {
+        if (!h.queue.offer(ITEM, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            counters.timeouts++;
+            return false;
+        }
+        return true;
+    }
+
+    @Benchmark
+    @Group("arrayBlockingQueue")
+    @GroupThreads(1)
+    public Integer queueConsume(BlockingQueueHandoff h, Counters counters) throws InterruptedException {
+        Integer item = h.queue.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (item == null) {
+            counters.timeouts++;
+        } else {
+            counters.handoffs++;
+        }
+        return item;
+    }
+}
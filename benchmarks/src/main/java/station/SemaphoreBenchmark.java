@@ -0,0 +1,62 @@
+package station;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// acquire/release cost of the station Semaphore against java.util.concurrent.Semaphore,
+// first with one thread per semaphore and then with four threads sharing one.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SemaphoreBenchmark {
+
+    @State(Scope.Thread)
+    public static class Uncontended {
+        final Semaphore station = new Semaphore(1);
+        final java.util.concurrent.Semaphore jdk = new java.util.concurrent.Semaphore(1);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Contended {
+        final Semaphore station = new Semaphore(1);
+        final java.util.concurrent.Semaphore jdk = new java.util.concurrent.Semaphore(1);
+    }
+
+    @Benchmark
+    public void uncontendedStation(Uncontended s) throws InterruptedException {
+        s.station.acquire();
+        s.station.release();
+    }
+
+    @Benchmark
+    public void uncontendedJdk(Uncontended s) throws InterruptedException {
+        s.jdk.acquire();
+        s.jdk.release();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void contendedStation(Contended s) throws InterruptedException {
+        s.station.acquire();
+        s.station.release();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void contendedJdk(Contended s) throws InterruptedException {
+        s.jdk.acquire();
+        s.jdk.release();
+    }
+}
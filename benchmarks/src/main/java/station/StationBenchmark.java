@@ -0,0 +1,154 @@
+package station;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.LinkedList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Whole-station throughput with zero service time: every operation is one Car thread arriving,
+// queueing and being taken by a Pump. The jdk baseline uses the same thread per car and the same
+// number of consumer threads, but hands cars over through an ArrayBlockingQueue.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StationBenchmark {
+    private static final int CARS = 256;
+
+    @State(Scope.Benchmark)
+    public static class RunningStation {
+        @Param({"1", "4", "16"})
+        int pumps;
+
+        @Param({"10"})
+        int capacity;
+
+        WaitingArea[] waitingArea;
+        ArrivalRouter router;
+        Pump[] pumpThreads;
+        PrintStream originalOut;
+
+        @Setup
+        public void setup() {
+            // Car and Pump print every step; the console would be the only thing measured
+            originalOut = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+            waitingArea = new WaitingArea[]{new WaitingArea(0, new LinkedList<>(), new Semaphore(1),
+                    new Semaphore(capacity), new Semaphore(0))};
+            router = new ArrivalRouter(ArrivalRouter.Strategy.ROUND_ROBIN);
+            Semaphore serviceBays = new Semaphore(pumps);
+            pumpThreads = new Pump[pumps];
+            for (int i = 0; i < pumps; i++) {
+                pumpThreads[i] = new Pump(i + 1, waitingArea[0], new WaitingArea[0], serviceBays, 1);
+                pumpThreads[i].start();
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            for (Pump pump : pumpThreads) {
+                pump.interrupt();
+            }
+            System.setOut(originalOut);
+        }
+
+        int serviced() {
+            int total = 0;
+            for (Pump pump : pumpThreads) {
+                total += pump.getServicedCount();
+            }
+            return total;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class JdkStation {
+        @Param({"1", "4", "16"})
+        int pumps;
+
+        @Param({"10"})
+        int capacity;
+
+        ArrayBlockingQueue<Integer> queue;
+        AtomicInteger serviced;
+        Thread[] consumers;
+
+        @Setup
+        public void setup() {
+            queue = new ArrayBlockingQueue<>(capacity);
+            serviced = new AtomicInteger();
+            consumers = new Thread[pumps];
+            for (int i = 0; i < pumps; i++) {
+                consumers[i] = new Thread(() -> {
+                    try {
+                        while (true) {
+                            queue.take();
+                            serviced.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                consumers[i].setDaemon(true);
+                consumers[i].start();
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            for (Thread consumer : consumers) {
+                consumer.interrupt();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARS)
+    public void station(RunningStation s) {
+        int target = s.serviced() + CARS;
+        for (int i = 0; i < CARS; i++) {
+            new Car("C" + i, s.waitingArea, s.router, 0, 0).start();
+        }
+        while (s.serviced() < target) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARS)
+    public void jdkStation(JdkStation s) {
+        int target = s.serviced.get() + CARS;
+        for (int i = 0; i < CARS; i++) {
+            Integer car = i;
+            Thread arrival = new Thread(() -> {
+                try {
+                    s.queue.put(car);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            arrival.start();
+        }
+        while (s.serviced.get() < target) {
+            Thread.onSpinWait();
+        }
+    }
+}
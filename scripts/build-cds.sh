@@ -0,0 +1,24 @@
+#!/bin/sh
+# Packages the programs into build/station.jar and creates AppCDS archives for fast startup:
+#   build/terminal.jsa - classes loaded by a training run of LinuxTerminal
+#   build/station.jsa  - classes loaded by a training run of ServiceStation
+# Archives only work with the jar and JDK they were created with, so rerun this after either changes.
+set -e
+cd "$(dirname "$0")/.."
+
+rm -rf build/classes
+mkdir -p build/classes
+javac -d build/classes *.java
+jar cf build/station.jar -C build/classes .
+
+# Terminal training run: touch every command so their classes end up in the archive
+TRAIN_DIR=$(mktemp -d)
+printf 'pwd\ncd %s\nmkdir d\ntouch f.txt\nls\nwc f.txt\ncat f.txt\ncp f.txt g.txt\ncp -r d e\nzip a.zip f.txt\nunzip a.zip -d d\nrm g.txt\nrmdir e\nls > out.txt\nexit\n' "$TRAIN_DIR" |
+    java -XX:ArchiveClassesAtExit=build/terminal.jsa -cp build/station.jar LinuxTerminal > /dev/null
+rm -rf "$TRAIN_DIR"
+
+# Station training run: a short interactive run
+printf '2\n1\n2\n' |
+    java -XX:ArchiveClassesAtExit=build/station.jsa -cp build/station.jar ServiceStation > /dev/null
+
+echo "Built build/station.jar, build/terminal.jsa and build/station.jsa"
@@ -0,0 +1,6 @@
+#!/bin/sh
+# Starts ServiceStation from the AppCDS archive made by build-cds.sh. Full JIT is kept because
+# sweeps and long simulations need it. Arguments are passed on, e.g. scripts/station.sh --sweep
+DIR="$(cd "$(dirname "$0")/.." && pwd)"
+exec java -XX:SharedArchiveFile="$DIR/build/station.jsa" -XX:+UseSerialGC \
+    -cp "$DIR/build/station.jar" ServiceStation "$@"
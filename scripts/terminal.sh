@@ -0,0 +1,6 @@
+#!/bin/sh
+# Starts LinuxTerminal from the AppCDS archive made by build-cds.sh. The terminal is short-lived,
+# so only the C1 compiler is used. Arguments run a single command, e.g. scripts/terminal.sh pwd
+DIR="$(cd "$(dirname "$0")/.." && pwd)"
+exec java -XX:SharedArchiveFile="$DIR/build/terminal.jsa" -XX:TieredStopAtLevel=1 -XX:+UseSerialGC \
+    -cp "$DIR/build/station.jar" LinuxTerminal "$@"